@@ -1,19 +1,26 @@
 package uk.ac.mmu.game;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import uk.ac.mmu.game.applicationcode.usecase.Required;
-import uk.ac.mmu.game.infrastructure.Technology;
+import uk.ac.mmu.game.infrastructure.GameJournal;
+
+import java.nio.file.Path;
 
 @Configuration
 public class AppConfig
 {
 
+    // Every game played is appended to the journal, so it can be replayed after a restart
     @Bean
-    Required required()
+    @Primary
+    Required required(@Value("${game.journal:games.journal}") String journal)
     {
-        return new Technology();
+        return new GameJournal(Path.of(journal));
     }
 
 
@@ -29,4 +36,25 @@ public class AppConfig
         return new uk.ac.mmu.game.applicationcode.usecase.replay.UseCase(required);
     }
 
+    // Tournaments keep their own journal, so their thousands of games do not fill the ids of the games played to replay
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tournament")
+    GameJournal tournamentJournal(@Value("${tournament.journal:tournament.journal}") String journal)
+    {
+        return new GameJournal(Path.of(journal));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tournament")
+    uk.ac.mmu.game.applicationcode.usecase.tournament.Provided tournamentUseCase(GameJournal tournamentJournal)
+    {
+        return new uk.ac.mmu.game.applicationcode.usecase.tournament.UseCase(tournamentJournal);
+    }
+
+    @Bean
+    uk.ac.mmu.game.applicationcode.usecase.simulation.Provided simulationUseCase()
+    {
+        return uk.ac.mmu.game.applicationcode.usecase.simulation.Provided.getInstance();
+    }
+
 }
@@ -1,10 +1,12 @@
 package uk.ac.mmu.game;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 import uk.ac.mmu.game.applicationcode.usecase.play.Provided;
 
 @Component
+@ConditionalOnProperty(name = {"tournament", "simulation"}, havingValue = "false", matchIfMissing = true)
 class Play implements org.springframework.boot.CommandLineRunner, Ordered {
 
     private final Provided usecase;
@@ -1,5 +1,7 @@
 package uk.ac.mmu.game;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 import uk.ac.mmu.game.applicationcode.usecase.replay.Provided;
@@ -9,12 +11,18 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
+@ConditionalOnProperty(name = {"tournament", "simulation"}, havingValue = "false", matchIfMissing = true)
 class Replay implements org.springframework.boot.CommandLineRunner, Ordered {
 
     private final Provided usecase;
+    private final int fromTurn;
+    private final int movesPerSecond;
 
-    Replay(Provided usecase) {
+    // --replay.from-turn=N jumps straight to turn N, --replay.speed=N shows N moves a second
+    Replay(Provided usecase, @Value("${replay.from-turn:0}") int fromTurn, @Value("${replay.speed:0}") int movesPerSecond) {
         this.usecase = usecase;
+        this.fromTurn = fromTurn;
+        this.movesPerSecond = movesPerSecond;
     }
 
 
@@ -25,7 +33,7 @@ class Replay implements org.springframework.boot.CommandLineRunner, Ordered {
         java.util.Scanner scanner = new java.util.Scanner(System.in);
         int input = scanner.nextInt();
         try {
-            usecase.replay(input);
+            usecase.replay(input, fromTurn, movesPerSecond);
         } catch (Exception e) {
             System.out.println("Error during replay: " + e.getMessage());
         }
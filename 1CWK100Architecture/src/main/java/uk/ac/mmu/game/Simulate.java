@@ -0,0 +1,55 @@
+package uk.ac.mmu.game;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.simulation.Provided;
+import uk.ac.mmu.game.applicationcode.usecase.simulation.SimulationResult;
+
+// Runs instead of Play and Replay when started with --simulation, and never waits for input
+// e.g. --simulation --simulation.games=100000000 --simulation.dice=2 --simulation.end-rule=EXACT --simulation.seed=42
+//      --simulation.players=4 --simulation.board=large --simulation.workers=8
+// The number of workers defaults to one per processor, and does not change the result
+@Component
+@ConditionalOnProperty(name = "simulation")
+class Simulate implements org.springframework.boot.CommandLineRunner {
+
+    private final Provided usecase;
+    private final long games;
+    private final int dice;
+    private final EndRule endRule;
+    private final long seed;
+    private final int players;
+    private final boolean largeBoard;
+    private final int workers;
+
+    Simulate(Provided usecase,
+             @Value("${simulation.games:1000000}") long games,
+             @Value("${simulation.dice:2}") int dice,
+             @Value("${simulation.end-rule:OVERSHOOT}") EndRule endRule,
+             @Value("${simulation.seed:1}") long seed,
+             @Value("${simulation.players:2}") int players,
+             @Value("${simulation.board:small}") String board,
+             @Value("${simulation.workers:0}") int workers) {
+        this.usecase = usecase;
+        this.games = games;
+        this.dice = dice;
+        this.endRule = endRule;
+        this.seed = seed;
+        this.players = players;
+        this.largeBoard = board.equalsIgnoreCase("large");
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void run(String... args) {
+        Board board = largeBoard ? Board.large(players, dice, endRule) : Board.small(players, dice, endRule);
+        long start = System.nanoTime();
+        SimulationResult result = usecase.run(board, dice, games, seed, workers);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(result);
+        System.out.format("%d games in %.2fs (%.0f games/s)%n", games, seconds, games / seconds);
+    }
+}
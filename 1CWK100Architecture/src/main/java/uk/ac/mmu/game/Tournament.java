@@ -0,0 +1,39 @@
+package uk.ac.mmu.game;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.tournament.Configuration;
+import uk.ac.mmu.game.applicationcode.usecase.tournament.Provided;
+
+// Runs instead of Play and Replay when started with --tournament, and never waits for input
+// e.g. --tournament --tournament.games=10000 --tournament.players=2,4 --tournament.dice=1,2 --tournament.end-rules=EXACT,OVERSHOOT
+// The games are saved to tournament.journal, or the file given with --tournament.journal=<file>
+@Component
+@ConditionalOnProperty(name = "tournament")
+class Tournament implements org.springframework.boot.CommandLineRunner {
+
+    private final Provided usecase;
+    private final int games;
+    private final int[] players;
+    private final int[] dice;
+    private final EndRule[] endRules;
+
+    Tournament(Provided usecase,
+               @Value("${tournament.games:1000}") int games,
+               @Value("${tournament.players:2,4}") int[] players,
+               @Value("${tournament.dice:1,2}") int[] dice,
+               @Value("${tournament.end-rules:EXACT,OVERSHOOT}") EndRule[] endRules) {
+        this.usecase = usecase;
+        this.games = games;
+        this.players = players;
+        this.dice = dice;
+        this.endRules = endRules;
+    }
+
+    @Override
+    public void run(String... args) {
+        System.out.print(usecase.run(Configuration.matrix(players, dice, endRules), games).toText());
+    }
+}
@@ -0,0 +1,131 @@
+package uk.ac.mmu.game.applicationcode.domainmodel;
+
+// Every player's route round the board, precomputed as flat tables so a move is one array lookup
+//
+// Each player tracks their progress as an index from 0 (home) to the end of their tail, as in the starter game.
+// Players start evenly spaced round the main board, so with two players on the small board Red starts
+// at position 1 and Blue at position 10, and each enters their own tail after one lap.
+// The end rule is applied once for every (index, roll) when the board is built, so moves never call it.
+// This is the only Board: the starter game in 1CWK100Game keeps its own Red and Blue, which the coursework builds on.
+public final class Board {
+    private static final String[] NAMES = {"Red", "Blue", "Green", "Yellow", "Orange", "Purple", "Cyan", "Pink"};
+
+    private final int players;
+    private final int startOfTailIndex;
+    private final int endOfTailIndex;
+    private final int maxRoll;
+    private final EndRule endRule;
+    // next[index * (maxRoll + 1) + roll] is where a player at index lands after rolling roll
+    private final int[] next;
+    // positions[player][index] is the position number shown on the board
+    private final int[][] positions;
+    private final String[][] labels;
+
+    public Board(int players, int mainPositions, int tailPositions, int maxRoll, EndRule endRule) {
+        if (players < 2 || players > NAMES.length) {
+            throw new IllegalArgumentException("Between 2 and " + NAMES.length + " players can play");
+        }
+        if (mainPositions < players || tailPositions < 1 || maxRoll < 1) {
+            throw new IllegalArgumentException("The board needs a position for each player, a tail and a roll of at least 1");
+        }
+        this.players = players;
+        this.startOfTailIndex = mainPositions;
+        this.endOfTailIndex = mainPositions + tailPositions - 1;
+        this.maxRoll = maxRoll;
+        this.endRule = endRule;
+
+        next = new int[(endOfTailIndex + 1) * (maxRoll + 1)];
+        for (int index = 0; index <= endOfTailIndex; index++) {
+            for (int roll = 0; roll <= maxRoll; roll++) {
+                next[index * (maxRoll + 1) + roll] = index == endOfTailIndex
+                        ? endOfTailIndex
+                        : endRule.calculateIndex(index, roll, endOfTailIndex);
+            }
+        }
+
+        positions = new int[players][endOfTailIndex + 1];
+        labels = new String[players][endOfTailIndex + 1];
+        for (int player = 0; player < players; player++) {
+            int start = player * mainPositions / players;
+            for (int index = 0; index <= endOfTailIndex; index++) {
+                int position = index < startOfTailIndex ? (start + index) % mainPositions + 1 : index - startOfTailIndex + 1;
+                positions[player][index] = position;
+                labels[player][index] = label(index, position);
+            }
+        }
+    }
+
+    // 18 positions round the board and a tail of 3
+    public static Board small(int players, int dice, EndRule endRule) {
+        return new Board(players, 18, 3, dice * 6, endRule);
+    }
+
+    // 36 positions round the board and a tail of 6
+    public static Board large(int players, int dice, EndRule endRule) {
+        return new Board(players, 36, 6, dice * 6, endRule);
+    }
+
+    public int advance(int index, int roll) {
+        return next[index * (maxRoll + 1) + roll];
+    }
+
+    public boolean isHome(int index) {
+        return index == 0;
+    }
+
+    public boolean isInTail(int index) {
+        return index >= startOfTailIndex;
+    }
+
+    public boolean isAtEnd(int index) {
+        return index == endOfTailIndex;
+    }
+
+    public int getPosition(int player, int index) {
+        return positions[player][index];
+    }
+
+    // Built when the board is, so showing a move does not format a String
+    public String getPositionAsString(int player, int index) {
+        return labels[player][index];
+    }
+
+    public String getName(int player) {
+        return NAMES[player];
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getMaxRoll() {
+        return maxRoll;
+    }
+
+    public int getMainPositions() {
+        return startOfTailIndex;
+    }
+
+    public int getTailPositions() {
+        return endOfTailIndex - startOfTailIndex + 1;
+    }
+
+    public int getEndOfTailIndex() {
+        return endOfTailIndex;
+    }
+
+    public EndRule getEndRule() {
+        return endRule;
+    }
+
+    private String label(int index, int position) {
+        if (isHome(index))
+            return String.format("HOME (Position %d)", position);
+        if (isAtEnd(index))
+            return String.format("END (Tail Position %d)", position);
+        if (isInTail(index))
+            return String.format("TAIL (Tail Position %d)", position);
+        else
+            return String.format("Position %d", position);
+    }
+}
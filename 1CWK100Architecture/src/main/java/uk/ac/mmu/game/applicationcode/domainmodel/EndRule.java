@@ -0,0 +1,22 @@
+package uk.ac.mmu.game.applicationcode.domainmodel;
+
+// How a roll that would take a player past the end of their tail is handled
+public enum EndRule {
+    // Stop on the end, so any large enough roll wins
+    OVERSHOOT {
+        @Override
+        int calculateIndex(int currentIndex, int positions, int endOfTailIndex) {
+            return Math.min(currentIndex + positions, endOfTailIndex);
+        }
+    },
+    // Exact End: bounce back by the number of positions left over
+    EXACT {
+        @Override
+        int calculateIndex(int currentIndex, int positions, int endOfTailIndex) {
+            int index = currentIndex + positions;
+            return index > endOfTailIndex ? Math.max(0, endOfTailIndex - (index - endOfTailIndex)) : index;
+        }
+    };
+
+    abstract int calculateIndex(int currentIndex, int positions, int endOfTailIndex);
+}
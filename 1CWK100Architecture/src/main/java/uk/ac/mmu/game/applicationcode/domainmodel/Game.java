@@ -1,6 +1,71 @@
 package uk.ac.mmu.game.applicationcode.domainmodel;
 
+import java.util.Arrays;
+
 
 // Domain model
-class Game {
+// One game on a Board: the players take turns in order, starting with the first, until one reaches the end of their tail
+// The state is a few ints, and reset() lets one Game be replayed or reused without allocating
+public class Game {
+    private final Board board;
+    private final int[] indexes;
+    private int player;
+    private int turns;
+    private int winner = -1;
+
+    public Game(Board board) {
+        this.board = board;
+        this.indexes = new int[board.getPlayers()];
+    }
+
+    // Moves the player whose turn it is and returns who moved
+    public int play(int roll) {
+        if (isOver()) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (roll < 1 || roll > board.getMaxRoll()) {
+            throw new IllegalArgumentException("Roll must be between 1 and " + board.getMaxRoll());
+        }
+        int moved = player;
+        indexes[moved] = board.advance(indexes[moved], roll);
+        turns++;
+        if (board.isAtEnd(indexes[moved])) {
+            winner = moved;
+        } else {
+            player = player + 1 == indexes.length ? 0 : player + 1;
+        }
+        return moved;
+    }
+
+    public void reset() {
+        Arrays.fill(indexes, 0);
+        player = 0;
+        turns = 0;
+        winner = -1;
+    }
+
+    public boolean isOver() {
+        return winner >= 0;
+    }
+
+    // The player who reached the end, or -1 while the game is still going
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getCurrentPlayer() {
+        return player;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getIndex(int player) {
+        return indexes[player];
+    }
+
+    public Board getBoard() {
+        return board;
+    }
 }
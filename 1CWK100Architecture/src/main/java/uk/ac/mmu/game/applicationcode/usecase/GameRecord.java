@@ -0,0 +1,106 @@
+package uk.ac.mmu.game.applicationcode.usecase;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.domainmodel.Game;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Everything needed to replay a finished game: the board it was played on and every die thrown, in order
+// A die is 1 to 6, so two fit in a byte, the first in the high nibble. The moves follow from the board and the dice.
+public final class GameRecord implements SavedGame {
+    private final int players;
+    private final int mainPositions;
+    private final int tailPositions;
+    private final EndRule endRule;
+    private final int dice;
+    private final int turns;
+    private final byte[] packedDice;
+
+    public GameRecord(int players, int mainPositions, int tailPositions, EndRule endRule, int dice, int turns, byte[] packedDice) {
+        if (packedDice.length < packedLength(turns, dice)) {
+            throw new IllegalArgumentException("Expected " + packedLength(turns, dice) + " bytes of dice for " + turns + " turns");
+        }
+        this.players = players;
+        this.mainPositions = mainPositions;
+        this.tailPositions = tailPositions;
+        this.endRule = endRule;
+        this.dice = dice;
+        this.turns = turns;
+        this.packedDice = packedDice;
+    }
+
+    // Plays one game on board with fresh dice, keeping every die thrown so it can be replayed move for move
+    // Safe to call from many threads at once: the board is never changed and each thread has its own random numbers
+    public static GameRecord play(Board board, int dice) {
+        Game game = new Game(board);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] packedDice = new byte[packedLength(64, dice)];
+        while (!game.isOver()) {
+            int turn = game.getTurns();
+            if (packedLength(turn + 1, dice) > packedDice.length) {
+                packedDice = Arrays.copyOf(packedDice, packedDice.length * 2);
+            }
+            int shake = 0;
+            for (int die = 0; die < dice; die++) {
+                int value = random.nextInt(1, 7);
+                pack(packedDice, turn * dice + die, value);
+                shake += value;
+            }
+            game.play(shake);
+        }
+        return new GameRecord(board.getPlayers(), board.getMainPositions(), board.getTailPositions(),
+                board.getEndRule(), dice, game.getTurns(), packedDice);
+    }
+
+    public static int packedLength(int turns, int dice) {
+        return (turns * dice + 1) / 2;
+    }
+
+    // Writes one die into packed, which must have room for it
+    public static void pack(byte[] packed, int die, int value) {
+        int shift = (die & 1) == 0 ? 4 : 0;
+        packed[die >> 1] = (byte) ((packed[die >> 1] & ~(0xF << shift)) | (value << shift));
+    }
+
+    @Override
+    public int getPlayers() {
+        return players;
+    }
+
+    @Override
+    public int getMainPositions() {
+        return mainPositions;
+    }
+
+    @Override
+    public int getTailPositions() {
+        return tailPositions;
+    }
+
+    @Override
+    public EndRule getEndRule() {
+        return endRule;
+    }
+
+    @Override
+    public int getDice() {
+        return dice;
+    }
+
+    @Override
+    public int getTurns() {
+        return turns;
+    }
+
+    @Override
+    public byte getPackedByte(int index) {
+        return packedDice[index];
+    }
+
+    // The packed dice themselves, not a copy, for adapters that store them
+    public byte[] getPackedDice() {
+        return packedDice;
+    }
+}
@@ -1,4 +1,29 @@
 package uk.ac.mmu.game.applicationcode.usecase;
 
+import java.util.List;
+
 public interface Required {
+    // Keeps a finished game and returns the id it can be replayed by
+    int save(GameRecord game);
+
+    // Keeps the games in order and returns the id of the first, the others following it
+    // Adapters that write to storage can write the whole batch at once
+    default int saveAll(List<GameRecord> games) {
+        if (games.isEmpty()) {
+            throw new IllegalArgumentException("No games to save");
+        }
+        int first = save(games.get(0));
+        for (int i = 1; i < games.size(); i++) {
+            save(games.get(i));
+        }
+        return first;
+    }
+
+    // Throws IllegalArgumentException when there is no game with the id
+    GameRecord load(int gameId);
+
+    // For replay, which only reads the game; adapters may return a view of their storage rather than a copy
+    default SavedGame open(int gameId) {
+        return load(gameId);
+    }
 }
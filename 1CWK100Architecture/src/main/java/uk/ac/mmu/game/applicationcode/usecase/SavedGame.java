@@ -0,0 +1,46 @@
+package uk.ac.mmu.game.applicationcode.usecase;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+
+// A finished game as it was saved: the board it was played on and every die thrown, packed two to a byte
+// Adapters can hand one back that reads straight from their storage, so replaying a game creates nothing per move.
+public interface SavedGame {
+    int getPlayers();
+
+    int getMainPositions();
+
+    int getTailPositions();
+
+    EndRule getEndRule();
+
+    int getDice();
+
+    int getTurns();
+
+    // Byte index of the packed dice, the first die in the high nibble
+    byte getPackedByte(int index);
+
+    // Players move in turn and the game stops as soon as one reaches the end, so the last to move won
+    default int getWinner() {
+        return (getTurns() - 1) % getPlayers();
+    }
+
+    default Board createBoard() {
+        return new Board(getPlayers(), getMainPositions(), getTailPositions(), getDice() * 6, getEndRule());
+    }
+
+    default int getDie(int turn, int die) {
+        int n = turn * getDice() + die;
+        int packed = getPackedByte(n >> 1);
+        return (n & 1) == 0 ? (packed >> 4) & 0xF : packed & 0xF;
+    }
+
+    default int getRoll(int turn) {
+        int roll = 0;
+        for (int die = 0; die < getDice(); die++) {
+            roll += getDie(turn, die);
+        }
+        return roll;
+    }
+}
@@ -1,18 +1,33 @@
 package uk.ac.mmu.game.applicationcode.usecase.play;
 
 
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.GameRecord;
 import uk.ac.mmu.game.applicationcode.usecase.Required;
 
 public class UseCase implements Provided {
 
     private final Required required;
+    private final Board board;
+    private final int dice;
 
+    // The starter game: two players on the small board, two dice, and a roll past the end still wins
     public UseCase(Required required) {
+        this(required, Board.small(2, 2, EndRule.OVERSHOOT), 2);
+    }
+
+    public UseCase(Required required, Board board, int dice) {
+        if (dice < 1 || dice * 6 > board.getMaxRoll()) {
+            throw new IllegalArgumentException("At least one die is needed, and the board must allow their highest roll");
+        }
         this.required = required;
+        this.board = board;
+        this.dice = dice;
     }
 
     @Override
     public int play() {
-        return 0;
+        return required.save(GameRecord.play(board, dice));
     }
 }
@@ -6,6 +6,9 @@ import uk.ac.mmu.game.applicationcode.usecase.Required;
 public interface Provided {
     void replay(int gameId);
 
+    // Plays the first fromTurn turns silently, then shows the rest at movesPerSecond, or as fast as possible when 0
+    void replay(int gameId, int fromTurn, int movesPerSecond);
+
     static Provided getInstance(Required required) {
         return new UseCase(required);
     }
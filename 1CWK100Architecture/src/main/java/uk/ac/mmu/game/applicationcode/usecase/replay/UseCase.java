@@ -1,7 +1,10 @@
 package uk.ac.mmu.game.applicationcode.usecase.replay;
 
 
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.Game;
 import uk.ac.mmu.game.applicationcode.usecase.Required;
+import uk.ac.mmu.game.applicationcode.usecase.SavedGame;
 
 public class UseCase implements Provided {
 
@@ -13,6 +16,58 @@ public class UseCase implements Provided {
 
     @Override
     public void replay(int gameId) {
+        replay(gameId, 0, 0);
+    }
+
+    // Plays the saved dice back on the same board, so every move comes out as it did the first time
+    // The dice are read one turn at a time from the saved game rather than copied out,
+    // and each move is appended to one reused line instead of going through a Formatter
+    @Override
+    public void replay(int gameId, int fromTurn, int movesPerSecond) {
+        if (movesPerSecond < 0) {
+            throw new IllegalArgumentException("Moves per second must not be negative");
+        }
+        SavedGame saved = required.open(gameId);
+        if (fromTurn < 0 || fromTurn > saved.getTurns()) {
+            throw new IllegalArgumentException("Game " + gameId + " has " + saved.getTurns() + " turns, cannot start at turn " + fromTurn);
+        }
+        Board board = saved.createBoard();
+        Game game = new Game(board);
+        System.out.format("Game %d: %d players, %d dice, %s end%n", gameId, saved.getPlayers(), saved.getDice(), saved.getEndRule());
+        for (int turn = 0; turn < fromTurn; turn++) {
+            game.play(saved.getRoll(turn));
+        }
+        if (fromTurn > 0) {
+            System.out.format("Skipped to turn %d%n", fromTurn);
+        }
+        long pause = movesPerSecond == 0 ? 0 : 1000L / movesPerSecond;
+        StringBuilder line = new StringBuilder(80);
+        for (int turn = fromTurn; turn < saved.getTurns(); turn++) {
+            int player = game.getCurrentPlayer();
+            int start = game.getIndex(player);
+            int roll = saved.getRoll(turn);
+            game.play(roll);
+            line.setLength(0);
+            line.append(board.getName(player)).append(" rolls ").append(roll)
+                    .append(" and moves from ").append(board.getPositionAsString(player, start))
+                    .append(" to ").append(board.getPositionAsString(player, game.getIndex(player)))
+                    .append(System.lineSeparator());
+            System.out.append(line);
+            if (pause > 0 && !sleep(pause)) {
+                return;
+            }
+        }
+        System.out.format("%s wins in %d plays%n", board.getName(game.getWinner()), game.getTurns());
+    }
 
+    // False when the replay has been interrupted and should stop
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -0,0 +1,14 @@
+package uk.ac.mmu.game.applicationcode.usecase.simulation;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+
+public interface Provided {
+    // Plays games seeded games on the board, rolling dice dice each turn, and returns who won and how long the games took
+    // The same seed always gives the same result, whatever the number of workers
+    SimulationResult run(Board board, int dice, long games, long seed, int workers);
+
+    static Provided getInstance() {
+        return new UseCase();
+    }
+
+}
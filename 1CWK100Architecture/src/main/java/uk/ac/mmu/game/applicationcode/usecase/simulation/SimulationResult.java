@@ -0,0 +1,67 @@
+package uk.ac.mmu.game.applicationcode.usecase.simulation;
+
+// Totals from a simulation: who won and how many plays each game took
+public class SimulationResult {
+    private final long games;
+    private final String[] names;
+    private final long[] wins;
+    private final long abandoned;
+    // plays[n] is the number of finished games that took n plays in total
+    private final long[] plays;
+
+    SimulationResult(long games, String[] names, long[] wins, long abandoned, long[] plays) {
+        this.games = games;
+        this.names = names.clone();
+        this.wins = wins.clone();
+        this.abandoned = abandoned;
+        this.plays = plays.clone();
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public double getWinRate(int player) {
+        return games == 0 ? 0 : (double) wins[player] / games;
+    }
+
+    public long getAbandoned() {
+        return abandoned;
+    }
+
+    public long getGamesWithPlays(int plays) {
+        return plays < this.plays.length ? this.plays[plays] : 0;
+    }
+
+    public double getMeanPlays() {
+        long finished = 0;
+        for (long playerWins : wins) {
+            finished += playerWins;
+        }
+        long total = 0;
+        for (int p = 0; p < plays.length; p++) {
+            total += p * plays[p];
+        }
+        return finished == 0 ? 0 : (double) total / finished;
+    }
+
+    // Win rates and a bar for each game length that happened in at least one game in 1,000
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format("Games %d:", games));
+        for (int player = 0; player < wins.length; player++) {
+            result.append(String.format(" %s wins %.4f%%,", names[player], getWinRate(player) * 100));
+        }
+        result.append(String.format(" abandoned %d, mean plays %.2f%n", abandoned, getMeanPlays()));
+        long most = 0;
+        for (long count : plays) {
+            most = Math.max(most, count);
+        }
+        for (int p = 0; p < plays.length; p++) {
+            if (games > 0 && plays[p] * 1_000 >= games) {
+                result.append(String.format("%4d plays %7.3f%% %s%n", p, 100.0 * plays[p] / games, "#".repeat((int) (50 * plays[p] / most))));
+            }
+        }
+        return result.toString();
+    }
+}
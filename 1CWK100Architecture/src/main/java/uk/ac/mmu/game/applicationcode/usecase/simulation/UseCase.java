@@ -0,0 +1,130 @@
+package uk.ac.mmu.game.applicationcode.usecase.simulation;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Plays many games on a Board in parallel to estimate each player's win rate and how long games last
+// Games are played straight from the board's tables rather than through Game, and are never saved
+// The games are cut into chunks of CHUNK_GAMES, each played with its own SplittableRandom split in turn from one
+// seeded generator. Workers take the next chunk until none are left, and the totals do not depend on which worker
+// played which chunk, so a run with the same seed always gives the same result whatever the number of workers.
+// A worker reuses its players' indexes and its counters for every game it plays, so games allocate nothing.
+class UseCase implements Provided {
+    // Games still going after this many plays are abandoned, and are not in the histogram of game lengths
+    static final int MAX_PLAYS = 1_000;
+    static final int CHUNK_GAMES = 1 << 16;
+
+    @Override
+    public SimulationResult run(Board board, int dice, long games, long seed, int workers) {
+        if (dice < 1 || dice * 6 > board.getMaxRoll()) {
+            throw new IllegalArgumentException("At least one die is needed, and the board must allow their highest roll");
+        }
+        if (games < 0 || workers < 1) {
+            throw new IllegalArgumentException("Games must not be negative and at least one worker is needed");
+        }
+        long chunkCount = (games + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        if (chunkCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many games: " + games);
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        SplittableRandom[] chunks = new SplittableRandom[(int) chunkCount];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            chunks[chunk] = seeds.split();
+        }
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        Worker[] running = new Worker[workers];
+        Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = new Worker(board, dice, games, chunks, nextChunk);
+            threads[i] = new Thread(running[i], "simulation-" + i);
+            threads[i].start();
+        }
+
+        long[] wins = new long[board.getPlayers()];
+        long abandoned = 0;
+        long[] plays = new long[MAX_PLAYS + 1];
+        try {
+            for (int i = 0; i < workers; i++) {
+                threads[i].join();
+                for (int player = 0; player < wins.length; player++) {
+                    wins[player] += running[i].wins[player];
+                }
+                abandoned += running[i].abandoned;
+                for (int p = 0; p < plays.length; p++) {
+                    plays[p] += running[i].plays[p];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        }
+        String[] names = new String[board.getPlayers()];
+        for (int player = 0; player < names.length; player++) {
+            names[player] = board.getName(player);
+        }
+        return new SimulationResult(games, names, wins, abandoned, plays);
+    }
+
+    private static final class Worker implements Runnable {
+        private final Board board;
+        private final int dice;
+        private final long games;
+        private final SplittableRandom[] chunks;
+        private final AtomicInteger nextChunk;
+        private final int[] indexes;
+        private final long[] wins;
+        private final long[] plays = new long[MAX_PLAYS + 1];
+        private long abandoned;
+
+        private Worker(Board board, int dice, long games, SplittableRandom[] chunks, AtomicInteger nextChunk) {
+            this.board = board;
+            this.dice = dice;
+            this.games = games;
+            this.chunks = chunks;
+            this.nextChunk = nextChunk;
+            this.indexes = new int[board.getPlayers()];
+            this.wins = new long[board.getPlayers()];
+        }
+
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks.length) {
+                long chunkGames = Math.min(CHUNK_GAMES, games - (long) chunk * CHUNK_GAMES);
+                for (long game = 0; game < chunkGames; game++) {
+                    play(chunks[chunk]);
+                }
+            }
+        }
+
+        // Red plays first, as in Game
+        private void play(SplittableRandom random) {
+            Arrays.fill(indexes, 0);
+            int players = indexes.length;
+            int player = 0;
+            for (int turns = 1; turns <= MAX_PLAYS; turns++) {
+                int index = board.advance(indexes[player], shake(random));
+                indexes[player] = index;
+                if (board.isAtEnd(index)) {
+                    wins[player]++;
+                    plays[turns]++;
+                    return;
+                }
+                player = player + 1 == players ? 0 : player + 1;
+            }
+            abandoned++;
+        }
+
+        private int shake(SplittableRandom random) {
+            int shake = 0;
+            for (int i = 0; i < dice; i++) {
+                shake += random.nextInt(1, 7);
+            }
+            return shake;
+        }
+    }
+}
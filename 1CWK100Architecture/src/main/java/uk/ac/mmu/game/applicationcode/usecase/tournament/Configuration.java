@@ -0,0 +1,44 @@
+package uk.ac.mmu.game.applicationcode.usecase.tournament;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One kind of game in a tournament, always on the small board
+public record Configuration(int players, int dice, EndRule endRule) {
+
+    public Configuration {
+        if (dice < 1 || dice > 2) {
+            throw new IllegalArgumentException("Games are played with 1 or 2 dice");
+        }
+        if (endRule == null) {
+            throw new IllegalArgumentException("End rule must not be null");
+        }
+        // The board checks the number of players
+        Board.small(players, dice, endRule);
+    }
+
+    // Every combination of the given player counts, dice and end rules
+    public static List<Configuration> matrix(int[] players, int[] dice, EndRule[] endRules) {
+        List<Configuration> configurations = new ArrayList<>();
+        for (int p : players) {
+            for (int d : dice) {
+                for (EndRule endRule : endRules) {
+                    configurations.add(new Configuration(p, d, endRule));
+                }
+            }
+        }
+        return List.copyOf(configurations);
+    }
+
+    public Board createBoard() {
+        return Board.small(players, dice, endRule);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d players, %d %s, %s end", players, dice, dice == 1 ? "die" : "dice", endRule);
+    }
+}
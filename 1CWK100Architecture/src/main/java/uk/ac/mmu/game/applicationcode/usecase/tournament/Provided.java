@@ -0,0 +1,15 @@
+package uk.ac.mmu.game.applicationcode.usecase.tournament;
+
+import uk.ac.mmu.game.applicationcode.usecase.Required;
+
+import java.util.List;
+
+public interface Provided {
+    // Plays gamesPerConfiguration games of every configuration, saving each one, and returns what happened
+    TournamentReport run(List<Configuration> configurations, int gamesPerConfiguration);
+
+    static Provided getInstance(Required required) {
+        return new UseCase(required);
+    }
+
+}
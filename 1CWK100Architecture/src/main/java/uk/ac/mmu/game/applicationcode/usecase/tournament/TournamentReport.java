@@ -0,0 +1,47 @@
+package uk.ac.mmu.game.applicationcode.usecase.tournament;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+
+import java.util.List;
+
+// What a tournament played: how long it took, how much of that the writer spent saving games,
+// and, for each configuration, how the games went
+public record TournamentReport(List<Result> results, long elapsedNanos, long saveNanos) {
+
+    // wins[player] counts the games each player won, in the order they took turns
+    public record Result(Configuration configuration, int games, long totalTurns, int minTurns, int maxTurns,
+                         long[] wins) {
+
+        public double getAverageTurns() {
+            return games == 0 ? 0 : (double) totalTurns / games;
+        }
+    }
+
+    public int getGames() {
+        int games = 0;
+        for (Result result : results) {
+            games += result.games();
+        }
+        return games;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Result result : results) {
+            text.append(String.format("%s: %d games, %.1f turns on average (%d to %d), wins",
+                    result.configuration(), result.games(), result.getAverageTurns(), result.minTurns(), result.maxTurns()));
+            Board board = result.configuration().createBoard();
+            for (int player = 0; player < result.wins().length; player++) {
+                text.append(String.format(" %s %.1f%%", board.getName(player), result.games() == 0 ? 0 : 100.0 * result.wins()[player] / result.games()));
+            }
+            text.append(System.lineSeparator());
+        }
+        text.append(String.format("Played %d games in %.2f s, %.0f games/s%n", getGames(), elapsedNanos / 1e9, getGamesPerSecond()));
+        text.append(String.format("Saving them took the writer %.2f s, alongside the games%n", saveNanos / 1e9));
+        return text.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package uk.ac.mmu.game.applicationcode.usecase.tournament;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.usecase.GameRecord;
+import uk.ac.mmu.game.applicationcode.usecase.Required;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class UseCase implements Provided {
+    // Games handed to the writer at once, and how many can wait for it before games stop to let it catch up
+    static final int SAVE_BATCH = 1024;
+    private static final int UNSAVED_GAMES = SAVE_BATCH * 4;
+
+    private final Required required;
+
+    public UseCase(Required required) {
+        this.required = required;
+    }
+
+    // Every game gets its own virtual thread and hands its record to a single writer, which saves the games
+    // through Required in batches, so games never wait on each other to be saved and the journal is written
+    // once per batch rather than once per game. The report gives the writer's time apart from the whole run.
+    // Boards are built once per configuration and shared, the results are added up as each game finishes
+    @Override
+    public TournamentReport run(List<Configuration> configurations, int gamesPerConfiguration) {
+        if (gamesPerConfiguration < 1) {
+            throw new IllegalArgumentException("A tournament needs at least one game of each configuration");
+        }
+        List<Tally> tallies = new ArrayList<>();
+        for (Configuration configuration : configurations) {
+            tallies.add(new Tally(configuration));
+        }
+        long start = System.nanoTime();
+        int total = configurations.size() * gamesPerConfiguration;
+        BlockingQueue<GameRecord> unsaved = new ArrayBlockingQueue<>(UNSAVED_GAMES);
+        Writer writer = new Writer(unsaved, total);
+        Thread writerThread = Thread.ofPlatform().name("tournament-writer").start(writer);
+        List<Future<?>> games = new ArrayList<>(total);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int game = 0; game < gamesPerConfiguration; game++) {
+                for (Tally tally : tallies) {
+                    games.add(executor.submit(() -> {
+                        tally.play(unsaved);
+                        return null;
+                    }));
+                }
+            }
+            try {
+                for (Future<?> game : games) {
+                    game.get();
+                }
+                writerThread.join();
+            } catch (InterruptedException | ExecutionException e) {
+                // Stop the games still waiting for the writer, so closing the executor does not wait for them
+                executor.shutdownNow();
+                writerThread.interrupt();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("A tournament game failed", e.getCause());
+        }
+        if (writer.failure != null) {
+            throw writer.failure;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        List<TournamentReport.Result> results = new ArrayList<>();
+        for (Tally tally : tallies) {
+            results.add(tally.toResult());
+        }
+        return new TournamentReport(List.copyOf(results), elapsedNanos, writer.saveNanos);
+    }
+
+    // Saves every game it is handed until it has seen them all; after a failed save it keeps taking games,
+    // so none wait for it forever, and the tournament reports the failure when they are done
+    private final class Writer implements Runnable {
+        private final BlockingQueue<GameRecord> unsaved;
+        private final int total;
+        private final List<GameRecord> batch = new ArrayList<>(SAVE_BATCH);
+        private long saveNanos;
+        private RuntimeException failure;
+
+        Writer(BlockingQueue<GameRecord> unsaved, int total) {
+            this.unsaved = unsaved;
+            this.total = total;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int taken = 0; taken < total; taken += batch.size()) {
+                    batch.clear();
+                    batch.add(unsaved.take());
+                    unsaved.drainTo(batch, SAVE_BATCH - 1);
+                    if (failure == null) {
+                        long start = System.nanoTime();
+                        try {
+                            required.saveAll(batch);
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                        saveNanos += System.nanoTime() - start;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The tournament has already failed
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class Tally {
+        private final Configuration configuration;
+        private final Board board;
+        private final AtomicInteger games = new AtomicInteger();
+        private final LongAdder totalTurns = new LongAdder();
+        private final AtomicInteger minTurns = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger maxTurns = new AtomicInteger();
+        private final AtomicLongArray wins;
+
+        Tally(Configuration configuration) {
+            this.configuration = configuration;
+            this.board = configuration.createBoard();
+            this.wins = new AtomicLongArray(configuration.players());
+        }
+
+        void play(BlockingQueue<GameRecord> unsaved) throws InterruptedException {
+            GameRecord game = GameRecord.play(board, configuration.dice());
+            unsaved.put(game);
+            int turns = game.getTurns();
+            games.incrementAndGet();
+            totalTurns.add(turns);
+            minTurns.accumulateAndGet(turns, Math::min);
+            maxTurns.accumulateAndGet(turns, Math::max);
+            wins.incrementAndGet(game.getWinner());
+        }
+
+        TournamentReport.Result toResult() {
+            long[] winCounts = new long[wins.length()];
+            for (int player = 0; player < winCounts.length; player++) {
+                winCounts[player] = wins.get(player);
+            }
+            return new TournamentReport.Result(configuration, games.get(), totalTurns.sum(), minTurns.get(), maxTurns.get(), winCounts);
+        }
+    }
+}
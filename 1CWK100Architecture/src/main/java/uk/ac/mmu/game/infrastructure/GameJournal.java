@@ -0,0 +1,272 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.GameRecord;
+import uk.ac.mmu.game.applicationcode.usecase.Required;
+import uk.ac.mmu.game.applicationcode.usecase.SavedGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// Append-only binary journal of every game played, so games can be replayed after a restart
+//
+// <name> holds one length-prefixed record per game:
+//   length (int, bytes after this field), gameId (int), players, mainPositions, tailPositions,
+//   endRule ordinal, dice (a byte each), turns (int), then the dice packed two to a byte as in GameRecord
+// <name>.idx holds the offset of each game's record as a long at gameId * 8, so loading a game is one read
+// of the index, kept in memory, and one read of the record.
+// Records are not forced to disk one by one; on open, anything after the last complete record is cut off.
+// Opening trusts the index, so only its last record is read from the journal, however many games there are.
+// Replays read the journal through a read-only mapping, which is only remapped once games have been added past it.
+public class GameJournal implements Required, AutoCloseable {
+    static final int HEADER_BYTES = 4 + 4 + 5 + 4;
+    // Each board size and the dice are stored in a byte
+    private static final int MAX_BYTE_FIELD = 0xFF;
+    private static final int INDEX_READ_BYTES = 64 * 1024;
+
+    private final FileChannel journal;
+    private final FileChannel index;
+    private long[] offsets = new long[1024];
+    private int games;
+    private long end;
+    private MappedByteBuffer mapped;
+
+    public GameJournal(Path file) {
+        try {
+            journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index = FileChannel.open(file.resolveSibling(file.getFileName() + ".idx"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open game journal " + file, e);
+        }
+    }
+
+    @Override
+    public int save(GameRecord game) {
+        return saveAll(List.of(game));
+    }
+
+    // One write to the journal and one to the index for the whole batch
+    @Override
+    public synchronized int saveAll(List<GameRecord> batch) {
+        if (batch.isEmpty()) {
+            throw new IllegalArgumentException("No games to save");
+        }
+        long bytes = 0;
+        for (GameRecord game : batch) {
+            checkByteField("players", game.getPlayers());
+            checkByteField("main positions", game.getMainPositions());
+            checkByteField("tail positions", game.getTailPositions());
+            checkByteField("dice", game.getDice());
+            bytes += HEADER_BYTES + GameRecord.packedLength(game.getTurns(), game.getDice());
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many games to save at once: " + batch.size());
+        }
+        int firstId = games;
+        ByteBuffer records = ByteBuffer.allocate((int) bytes);
+        ByteBuffer entries = ByteBuffer.allocate(batch.size() * 8);
+        for (int i = 0; i < batch.size(); i++) {
+            GameRecord game = batch.get(i);
+            int packedLength = GameRecord.packedLength(game.getTurns(), game.getDice());
+            entries.putLong(end + records.position());
+            records.putInt(HEADER_BYTES - 4 + packedLength)
+                    .putInt(firstId + i)
+                    .put((byte) game.getPlayers())
+                    .put((byte) game.getMainPositions())
+                    .put((byte) game.getTailPositions())
+                    .put((byte) game.getEndRule().ordinal())
+                    .put((byte) game.getDice())
+                    .putInt(game.getTurns())
+                    .put(game.getPackedDice(), 0, packedLength);
+        }
+        try {
+            write(journal, records.flip(), end);
+            write(index, entries.flip(), (long) firstId * 8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write games from " + firstId, e);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            addOffset(entries.getLong(i * 8));
+        }
+        end += records.limit();
+        return firstId;
+    }
+
+    @Override
+    public GameRecord load(int gameId) {
+        long offset;
+        synchronized (this) {
+            if (gameId < 0 || gameId >= games) {
+                throw new IllegalArgumentException("No game with id " + gameId);
+            }
+            offset = offsets[gameId];
+        }
+        try {
+            ByteBuffer header = read(offset, HEADER_BYTES);
+            int length = header.getInt();
+            if (header.getInt() != gameId) {
+                throw new IllegalStateException("Game journal index is out of step at game " + gameId);
+            }
+            int players = Byte.toUnsignedInt(header.get());
+            int mainPositions = Byte.toUnsignedInt(header.get());
+            int tailPositions = Byte.toUnsignedInt(header.get());
+            EndRule endRule = EndRule.values()[header.get()];
+            int dice = Byte.toUnsignedInt(header.get());
+            int turns = header.getInt();
+            byte[] packedDice = new byte[length - (HEADER_BYTES - 4)];
+            read(offset + HEADER_BYTES, packedDice.length).get(packedDice);
+            return new GameRecord(players, mainPositions, tailPositions, endRule, dice, turns, packedDice);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read game " + gameId, e);
+        }
+    }
+
+    // A view of the record in the mapped journal, nothing is read until the dice are asked for
+    @Override
+    public SavedGame open(int gameId) {
+        MappedByteBuffer journalMap;
+        int position;
+        synchronized (this) {
+            if (gameId < 0 || gameId >= games) {
+                throw new IllegalArgumentException("No game with id " + gameId);
+            }
+            long offset = offsets[gameId];
+            long recordEnd = gameId + 1 < games ? offsets[gameId + 1] : end;
+            try {
+                if (recordEnd > Integer.MAX_VALUE) {
+                    // Past what one mapping can reach, so map just this record
+                    journalMap = journal.map(FileChannel.MapMode.READ_ONLY, offset, recordEnd - offset);
+                    position = 0;
+                } else {
+                    if (mapped == null || mapped.capacity() < recordEnd) {
+                        mapped = journal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(end, Integer.MAX_VALUE));
+                    }
+                    journalMap = mapped;
+                    position = (int) offset;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map game " + gameId, e);
+            }
+        }
+        if (journalMap.getInt(position + 4) != gameId) {
+            throw new IllegalStateException("Game journal index is out of step at game " + gameId);
+        }
+        return new MappedGame(journalMap, position);
+    }
+
+    public synchronized int getGames() {
+        return games;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            journal.force(true);
+            index.force(true);
+            journal.close();
+            index.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Trusts the index as long as its offsets go up, and only checks its last record against the journal,
+    // then walks the length prefixes for any records written after the last index entry
+    private void recover() throws IOException {
+        long size = journal.size();
+        long indexed = index.size() / 8;
+        if (indexed > Integer.MAX_VALUE - 8) {
+            throw new IOException("Game journal index is too large");
+        }
+        offsets = new long[Math.max(offsets.length, (int) indexed)];
+        ByteBuffer entries = ByteBuffer.allocate(INDEX_READ_BYTES);
+        long position = 0;
+        boolean inOrder = true;
+        while (inOrder && position < indexed * 8) {
+            entries.clear().limit((int) Math.min(INDEX_READ_BYTES, indexed * 8 - position));
+            while (entries.hasRemaining()) {
+                if (index.read(entries, position + entries.position()) < 0) {
+                    throw new IOException("Unexpected end of game journal index");
+                }
+            }
+            position += entries.limit();
+            entries.flip();
+            while (inOrder && entries.hasRemaining()) {
+                long offset = entries.getLong();
+                // Each record is at least a header long, so the next one starts at least that far on
+                long earliest = games == 0 ? 0 : offsets[games - 1] + HEADER_BYTES;
+                inOrder = (games == 0 ? offset == 0 : offset >= earliest) && offset + HEADER_BYTES <= size;
+                if (inOrder) {
+                    addOffset(offset);
+                }
+            }
+        }
+
+        // The newest entries may point at records that never fully reached the journal
+        while (games > 0 && (end = recordEnd(offsets[games - 1], games - 1, size)) < 0) {
+            games--;
+        }
+        if (games == 0) {
+            end = 0;
+        }
+
+        long next;
+        while ((next = recordEnd(end, games, size)) >= 0) {
+            write(index, ByteBuffer.allocate(8).putLong(0, end), (long) games * 8);
+            addOffset(end);
+            end = next;
+        }
+        journal.truncate(end);
+        index.truncate((long) games * 8);
+    }
+
+    // Where the record for gameId starting at offset ends, or -1 if it is not all there
+    private long recordEnd(long offset, int gameId, long size) throws IOException {
+        if (offset + HEADER_BYTES > size) {
+            return -1;
+        }
+        ByteBuffer header = read(offset, 8);
+        int length = header.getInt();
+        if (length < HEADER_BYTES - 4 || header.getInt() != gameId || offset + 4 + length > size) {
+            return -1;
+        }
+        return offset + 4 + length;
+    }
+
+    private static void checkByteField(String name, int value) {
+        if (value < 0 || value > MAX_BYTE_FIELD) {
+            throw new IllegalArgumentException("Cannot save a game with " + value + " " + name + ", a journal record holds 0 to " + MAX_BYTE_FIELD);
+        }
+    }
+
+    private void addOffset(long offset) {
+        if (games == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[games++] = offset;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (journal.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of game journal");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package uk.ac.mmu.game.infrastructure;
+
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.SavedGame;
+
+import java.nio.MappedByteBuffer;
+
+// A game read in place from the mapped journal, the dice are never copied out
+final class MappedGame implements SavedGame {
+    private final MappedByteBuffer journal;
+    private final int diceOffset;
+    private final int players;
+    private final int mainPositions;
+    private final int tailPositions;
+    private final EndRule endRule;
+    private final int dice;
+    private final int turns;
+
+    // offset is where the record starts in journal, its layout is described in GameJournal
+    MappedGame(MappedByteBuffer journal, int offset) {
+        this.journal = journal;
+        this.players = Byte.toUnsignedInt(journal.get(offset + 8));
+        this.mainPositions = Byte.toUnsignedInt(journal.get(offset + 9));
+        this.tailPositions = Byte.toUnsignedInt(journal.get(offset + 10));
+        this.endRule = EndRule.values()[journal.get(offset + 11)];
+        this.dice = Byte.toUnsignedInt(journal.get(offset + 12));
+        this.turns = journal.getInt(offset + 13);
+        this.diceOffset = offset + GameJournal.HEADER_BYTES;
+    }
+
+    @Override
+    public int getPlayers() {
+        return players;
+    }
+
+    @Override
+    public int getMainPositions() {
+        return mainPositions;
+    }
+
+    @Override
+    public int getTailPositions() {
+        return tailPositions;
+    }
+
+    @Override
+    public EndRule getEndRule() {
+        return endRule;
+    }
+
+    @Override
+    public int getDice() {
+        return dice;
+    }
+
+    @Override
+    public int getTurns() {
+        return turns;
+    }
+
+    @Override
+    public byte getPackedByte(int index) {
+        return journal.get(diceOffset + index);
+    }
+}
@@ -1,9 +1,36 @@
 package uk.ac.mmu.game.infrastructure;
 
+import uk.ac.mmu.game.applicationcode.usecase.GameRecord;
 import uk.ac.mmu.game.applicationcode.usecase.Required;
 
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the games in memory, so they are gone when the application stops
 public class Technology implements Required {
-}
+    private final List<GameRecord> games = new ArrayList<>();
 
+    @Override
+    public synchronized int save(GameRecord game) {
+        games.add(game);
+        return games.size() - 1;
+    }
 
+    // Under one lock, so the ids follow on from each other
+    @Override
+    public synchronized int saveAll(List<GameRecord> games) {
+        if (games.isEmpty()) {
+            throw new IllegalArgumentException("No games to save");
+        }
+        this.games.addAll(games);
+        return this.games.size() - games.size();
+    }
 
+    @Override
+    public synchronized GameRecord load(int gameId) {
+        if (gameId < 0 || gameId >= games.size()) {
+            throw new IllegalArgumentException("No game with id " + gameId);
+        }
+        return games.get(gameId);
+    }
+}
@@ -0,0 +1,202 @@
+package uk.ac.mmu.game.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.mmu.game.applicationcode.domainmodel.Board;
+import uk.ac.mmu.game.applicationcode.domainmodel.EndRule;
+import uk.ac.mmu.game.applicationcode.usecase.GameRecord;
+import uk.ac.mmu.game.applicationcode.usecase.SavedGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsAndOpensSavedGamesAfterReopening() {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = play(5);
+        try (GameJournal journal = new GameJournal(file)) {
+            for (int gameId = 0; gameId < games.size(); gameId++) {
+                assertEquals(gameId, journal.save(games.get(gameId)));
+            }
+            assertSavedGames(games, journal);
+        }
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+    }
+
+    @Test
+    void savesABatchUnderConsecutiveIds() {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = play(4);
+        try (GameJournal journal = new GameJournal(file)) {
+            journal.save(games.get(0));
+            assertEquals(1, journal.saveAll(games.subList(1, 4)));
+            assertSavedGames(games, journal);
+        }
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+    }
+
+    @Test
+    void dropsATornFinalRecord() throws IOException {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = save(file, 4);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games.subList(0, 3), journal);
+            assertEquals(3 * 8, Files.size(index(file)));
+            assertEquals(3, journal.save(games.get(3)));
+        }
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+    }
+
+    @Test
+    void rebuildsAMissingIndexFromTheJournal() throws IOException {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = save(file, 4);
+        byte[] index = Files.readAllBytes(index(file));
+        Files.delete(index(file));
+
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+        assertEquals(ByteBuffer.wrap(index), ByteBuffer.wrap(Files.readAllBytes(index(file))));
+    }
+
+    @Test
+    void indexesTheRecordsAfterAShortIndex() throws IOException {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = save(file, 4);
+        try (FileChannel channel = FileChannel.open(index(file), StandardOpenOption.WRITE)) {
+            channel.truncate(8 + 3);
+        }
+
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+        assertEquals(4 * 8, Files.size(index(file)));
+    }
+
+    @Test
+    void stopsTrustingTheIndexWhereItsOffsetsGoBack() throws IOException {
+        Path file = directory.resolve("games");
+        List<GameRecord> games = save(file, 4);
+        byte[] index = Files.readAllBytes(index(file));
+        try (FileChannel channel = FileChannel.open(index(file), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 0), 2 * 8);
+        }
+
+        try (GameJournal journal = new GameJournal(file)) {
+            assertSavedGames(games, journal);
+        }
+        assertEquals(ByteBuffer.wrap(index), ByteBuffer.wrap(Files.readAllBytes(index(file))));
+    }
+
+    @Test
+    void remapsTheJournalForGamesSavedAfterItWasMapped() {
+        List<GameRecord> games = play(3);
+        try (GameJournal journal = new GameJournal(directory.resolve("games"))) {
+            journal.save(games.get(0));
+            SavedGame first = journal.open(0);
+            journal.save(games.get(1));
+            journal.save(games.get(2));
+
+            assertSameGame(games.get(2), journal.open(2));
+            assertSameGame(games.get(1), journal.open(1));
+            assertSameGame(games.get(0), first);
+        }
+    }
+
+    @Test
+    void rejectsFieldsThatDoNotFitInAByte() throws IOException {
+        Path file = directory.resolve("games");
+        try (GameJournal journal = new GameJournal(file)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.save(new GameRecord(256, 18, 3, EndRule.EXACT, 1, 1, new byte[1])));
+            assertThrows(IllegalArgumentException.class, () -> journal.save(new GameRecord(2, 256, 3, EndRule.EXACT, 1, 1, new byte[1])));
+            assertThrows(IllegalArgumentException.class, () -> journal.save(new GameRecord(2, 18, 256, EndRule.EXACT, 1, 1, new byte[1])));
+            assertThrows(IllegalArgumentException.class, () -> journal.save(new GameRecord(2, 18, 3, EndRule.EXACT, 256, 1, new byte[128])));
+            assertThrows(IllegalArgumentException.class, () -> journal.save(new GameRecord(-1, 18, 3, EndRule.EXACT, 1, 1, new byte[1])));
+            assertEquals(0, journal.getGames());
+
+            // The largest values that fit are kept as they are, not read back as negative
+            GameRecord largest = new GameRecord(255, 255, 255, EndRule.EXACT, 255, 1, new byte[128]);
+            journal.save(largest);
+            SavedGame saved = journal.load(0);
+            assertEquals(255, saved.getPlayers());
+            assertEquals(255, saved.getMainPositions());
+            assertEquals(255, saved.getTailPositions());
+            assertEquals(255, saved.getDice());
+            assertEquals(255, journal.open(0).getDice());
+        }
+        try (GameJournal journal = new GameJournal(file)) {
+            assertEquals(1, journal.getGames());
+        }
+    }
+
+    private static List<GameRecord> play(int count) {
+        List<GameRecord> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EndRule endRule = i % 2 == 0 ? EndRule.EXACT : EndRule.OVERSHOOT;
+            int dice = 1 + i % 2;
+            games.add(GameRecord.play(Board.small(2 + i % 3, dice, endRule), dice));
+        }
+        return games;
+    }
+
+    private static List<GameRecord> save(Path file, int count) {
+        List<GameRecord> games = play(count);
+        try (GameJournal journal = new GameJournal(file)) {
+            for (GameRecord game : games) {
+                journal.save(game);
+            }
+        }
+        return games;
+    }
+
+    private static Path index(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    private static void assertSavedGames(List<GameRecord> games, GameJournal journal) {
+        assertEquals(games.size(), journal.getGames());
+        for (int gameId = 0; gameId < games.size(); gameId++) {
+            assertSameGame(games.get(gameId), journal.load(gameId));
+            assertSameGame(games.get(gameId), journal.open(gameId));
+        }
+    }
+
+    private static void assertSameGame(GameRecord expected, SavedGame actual) {
+        assertEquals(expected.getPlayers(), actual.getPlayers());
+        assertEquals(expected.getMainPositions(), actual.getMainPositions());
+        assertEquals(expected.getTailPositions(), actual.getTailPositions());
+        assertEquals(expected.getEndRule(), actual.getEndRule());
+        assertEquals(expected.getDice(), actual.getDice());
+        assertEquals(expected.getTurns(), actual.getTurns());
+        for (int turn = 0; turn < expected.getTurns(); turn++) {
+            for (int die = 0; die < expected.getDice(); die++) {
+                assertEquals(expected.getDie(turn, die), actual.getDie(turn, die), "turn " + turn + " die " + die);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package applicationcode.usecase.calculateshipping;
+
+import benchmarks.Workload;
+import infrastructure.cache.ShippingQuoteCache;
+import applicationcode.domainmodel.ShippingRegion;
+import infrastructure.driven.CountryCodeIndexDatabaseAdapter;
+import infrastructure.driven.ListAvailableCountriesDatabaseAdapter;
+import infrastructure.driven.PutRegionDatabaseAdapter;
+import infrastructure.driven.ShippingCostDatabase;
+import infrastructure.driven.ShippingCostDatabaseInitializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CalculateShippingBenchmark {
+    private static final int SAMPLES = 1 << 16;
+    private static final int BATCH = 1024;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    private Provided calculateShipping;
+    private ShippingQuoteCache exactQuoteCache;
+    private ShippingQuoteCache bandedQuoteCache;
+    private RateCard rateCard;
+    private Map<String, ShippingRegion> hashedShippingRegions;
+    private String[] countryCodes;
+    private double[] weights;
+    private String[] batchCountryCodes;
+    private double[] batchWeights;
+    private double[] batchCosts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ShippingCostDatabase database = new ShippingCostDatabase();
+        applicationcode.usecase.putregion.Provided putRegions = applicationcode.usecase.putregion.Provided.create(new PutRegionDatabaseAdapter(database));
+        new ShippingCostDatabaseInitializer(putRegions).initializeDb();
+        //Wired as SoftwareProduct wires it
+        CountryCodeIndexDatabaseAdapter countryCodeIndex = new CountryCodeIndexDatabaseAdapter(database);
+        calculateShipping = Provided.create(countryCodeIndex);
+        exactQuoteCache = new ShippingQuoteCache(calculateShipping, 10_000);
+        bandedQuoteCache = new ShippingQuoteCache(calculateShipping, 10_000, 0.5);
+
+        //Sorted so that the same countries are the popular ones on every run
+        String[] available = applicationcode.usecase.listavailablecountries.Provided.create(new ListAvailableCountriesDatabaseAdapter(database))
+                .list().stream().sorted().toArray(String[]::new);
+        int[] indexes = Workload.zipf(available.length, SAMPLES, skew, 42);
+        countryCodes = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            countryCodes[i] = available[indexes[i]];
+        }
+        weights = Workload.weights(SAMPLES, 43);
+
+        //The card calculate prices from, and the String keyed map it used to be
+        rateCard = RateCard.compile(countryCodeIndex, countryCodeIndex.getVersion());
+        hashedShippingRegions = new HashMap<>();
+        for (String countryCode : available) {
+            hashedShippingRegions.put(countryCode, rateCard.get(countryCode));
+        }
+
+        batchCountryCodes = new String[BATCH];
+        batchWeights = new double[BATCH];
+        batchCosts = new double[BATCH];
+        System.arraycopy(countryCodes, 0, batchCountryCodes, 0, BATCH);
+        System.arraycopy(weights, 0, batchWeights, 0, BATCH);
+        reportRegions(countryCodeIndex);
+    }
+
+    //The batch path prices each region's parcels in one kernel call, so it only gains when those groups are
+    //several vector lanes long; runs of neighbours to the same region show what pricing in place would get
+    private void reportRegions(CountryCodeIndexDatabaseAdapter countryCodeIndex) {
+        Map<String, Integer> groupSizes = new TreeMap<>();
+        int runs = 0;
+        String previous = null;
+        for (String countryCode : batchCountryCodes) {
+            String regionCode = countryCodeIndex.getRegionCode(countryCode);
+            groupSizes.merge(regionCode, 1, Integer::sum);
+            if (!regionCode.equals(previous)) {
+                runs++;
+                previous = regionCode;
+            }
+        }
+        System.out.printf("%nskew %s: %d parcels per batch, mean run to one region %.1f, parcels per region %s, Vector API %s%n",
+                skew, BATCH, (double) BATCH / runs, groupSizes,
+                vectorKernels() ? "on" : "off");
+    }
+
+    //The same test ShippingCostKernels makes
+    private static boolean vectorKernels() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && Boolean.parseBoolean(System.getProperty("shipping.vectorKernels", "true"));
+    }
+
+    @Benchmark
+    public double calculate() {
+        int i = next++ & (SAMPLES - 1);
+        return calculateShipping.calculate(countryCodes[i], weights[i]);
+    }
+
+    //What calculate does to find a country's ShippingRegion: two letter codes are one load from the packed index
+    @Benchmark
+    public ShippingRegion lookupPacked() {
+        return rateCard.get(countryCodes[next++ & (SAMPLES - 1)]);
+    }
+
+    //The same lookup through String.hashCode and equals, as the rate card did before the packed index
+    @Benchmark
+    public ShippingRegion lookupHashed() {
+        return hashedShippingRegions.get(countryCodes[next++ & (SAMPLES - 1)]);
+    }
+
+    //The quote cache is off unless asked for, and these show whether it beats calculate on the same requests
+    @Benchmark
+    public double calculateCachedExactWeight() {
+        int i = next++ & (SAMPLES - 1);
+        return exactQuoteCache.calculate(countryCodes[i], weights[i]);
+    }
+
+    @Benchmark
+    public double calculateCachedHalfKgBand() {
+        int i = next++ & (SAMPLES - 1);
+        return bandedQuoteCache.calculate(countryCodes[i], weights[i]);
+    }
+
+    @TearDown
+    public void reportQuoteCaches() {
+        if (exactQuoteCache.getHits() + exactQuoteCache.getMisses() > 0) {
+            System.out.printf("%nexact weight %s%n", exactQuoteCache);
+        }
+        if (bandedQuoteCache.getHits() + bandedQuoteCache.getMisses() > 0) {
+            System.out.printf("%n0.5kg band %s%n", bandedQuoteCache);
+        }
+    }
+
+    //Groups the parcels by region and prices each group with one call to the Vector API kernels
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] calculateBatch() {
+        calculateShipping.calculate(batchCountryCodes, batchWeights, batchCosts);
+        return batchCosts;
+    }
+
+    //The same grouping with the kernels held to scalar loops; the gap to calculateBatch is what the Vector API adds
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dshipping.vectorKernels=false"})
+    public double[] calculateBatchWithoutVectorApi() {
+        calculateShipping.calculate(batchCountryCodes, batchWeights, batchCosts);
+        return batchCosts;
+    }
+
+    //The same parcels priced one at a time through the scalar calculate
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] calculateEach() {
+        for (int i = 0; i < BATCH; i++) {
+            batchCosts[i] = calculateShipping.calculate(batchCountryCodes[i], batchWeights[i]);
+        }
+        return batchCosts;
+    }
+}
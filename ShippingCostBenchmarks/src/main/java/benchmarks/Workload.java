@@ -0,0 +1,47 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+//Builds request streams where a few keys dominate, as they do in real traffic
+public final class Workload {
+    private Workload() {
+    }
+
+    //Returns samples indexes into 0..items-1 drawn from a Zipf distribution; skew 0 is uniform
+    public static int[] zipf(int items, int samples, double skew, long seed) {
+        double[] cumulative = new double[items];
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            total += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = total;
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] indexes = new int[samples];
+        for (int sample = 0; sample < samples; sample++) {
+            double point = random.nextDouble() * total;
+            int low = 0;
+            int high = items - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < point) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            indexes[sample] = low;
+        }
+        return indexes;
+    }
+
+    //Parcel weights between 0.1kg and 30kg
+    public static double[] weights(int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] weights = new double[samples];
+        for (int sample = 0; sample < samples; sample++) {
+            weights[sample] = 0.1 + random.nextDouble() * 29.9;
+        }
+        return weights;
+    }
+}
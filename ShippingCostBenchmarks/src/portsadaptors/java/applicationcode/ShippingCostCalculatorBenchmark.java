@@ -0,0 +1,60 @@
+package applicationcode;
+
+import benchmarks.Workload;
+import infrastructure.driven.ShippingCostDatabase;
+import infrastructure.driven.ShippingCostDatabaseAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShippingCostCalculatorBenchmark {
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    private ShippingCostCalculator calculator;
+    private Region[] regions;
+    private double[] weights;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ShippingCostDatabase database = new ShippingCostDatabase();
+        database.regions.add(Region.UK);
+        database.regions.add(Region.EUR);
+        database.regions.add(Region.ROW);
+        database.costPerKgMap.put(Region.UK, 0.0);
+        database.costPerKgMap.put(Region.EUR, 1.25d);
+        database.costPerKgMap.put(Region.ROW, 5.5d);
+        database.minChargeMap.put(Region.UK, 0.0);
+        database.minChargeMap.put(Region.EUR, 0.0);
+        database.minChargeMap.put(Region.ROW, 10.0);
+        calculator = new ShippingCostCalculator(new ShippingCostDatabaseAdapter(database));
+
+        int[] indexes = Workload.zipf(Region.values().length, SAMPLES, skew, 42);
+        regions = new Region[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            regions[i] = Region.values()[indexes[i]];
+        }
+        weights = Workload.weights(SAMPLES, 43);
+    }
+
+    @Benchmark
+    public double calculate() {
+        int i = next++ & (SAMPLES - 1);
+        return calculator.calculate(regions[i], weights[i]);
+    }
+
+    @Benchmark
+    public double calculateWithoutStrategy() {
+        int i = next++ & (SAMPLES - 1);
+        return calculator.calculateWithoutStrategy(regions[i], weights[i]);
+    }
+}
@@ -0,0 +1,59 @@
+package applicationcode;
+
+import benchmarks.Workload;
+import infrastructure.driven.IndexedShippingCostRepositoryAdapter;
+import infrastructure.driven.ShippingCostDatabase;
+import infrastructure.driven.ShippingCostRepositoryAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShippingCostAdministratorBenchmark {
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"database", "indexed"})
+    public String repository;
+
+    private Provided administrator;
+    private Region[] regions;
+    private double[] costs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        administrator = Provided.create(repository.equals("indexed")
+                ? new IndexedShippingCostRepositoryAdapter()
+                : new ShippingCostRepositoryAdapter(new ShippingCostDatabase()));
+        administrator.addShippingCost(Region.UK, 0.0, 0.0);
+        administrator.addShippingCost(Region.EUR, 0.0, 1.25);
+        administrator.addShippingCost(Region.ROW, 10.0, 5.5);
+
+        int[] indexes = Workload.zipf(Region.values().length, SAMPLES, skew, 42);
+        regions = new Region[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            regions[i] = Region.values()[indexes[i]];
+        }
+        costs = Workload.weights(SAMPLES, 43);
+    }
+
+    @Benchmark
+    public List<ShippingCost> getAllShippingCosts() {
+        return administrator.getAllShippingCosts();
+    }
+
+    @Benchmark
+    public void updateShippingCost() {
+        int i = next++ & (SAMPLES - 1);
+        administrator.updateShippingCost(regions[i], costs[i], costs[i]);
+    }
+}
@@ -1,31 +1,184 @@
+import infrastructure.cache.InvalidatingPutRegion;
+import infrastructure.cache.ShippingQuoteCache;
 import infrastructure.driven.*;
+import infrastructure.driving.ImportReport;
+import infrastructure.driving.RateDirectoryWatcher;
+import infrastructure.driving.RateFileImportAdapter;
 import infrastructure.driving.ShippingCostCliAdapter;
+import infrastructure.driving.ShippingCostLineProtocolAdapter;
+import infrastructure.instrumentation.Instrumentation;
+import infrastructure.instrumentation.InstrumentedCalculateShipping;
+import infrastructure.instrumentation.InstrumentedListAvailableCountries;
+import infrastructure.instrumentation.InstrumentedPutRegion;
+import infrastructure.tenant.TenantCatalogues;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
 
 public class SoftwareProduct {
 
-    public static void main(String[] args) {
-        ShippingCostDatabase shippingCostDatabase = new ShippingCostDatabase(); // Create an instance of ShippingCostDatabase
+    public static void main(String[] args) throws IOException {
+        //Run with --db=<file> to keep the shipping costs in a memory mapped file instead of in memory
+        //or with --offheap to keep the country codes off the heap, for postcode-level tables
+        //and with --import=<file> to load a rate file before starting
+        //--serve answers quote requests from stdin, --serve=<port> from a local socket
+        //--watch=<dir> reloads all the rates whenever a rate file is dropped into the directory (in memory only)
+        //--reprice=<history> --proposed=<file> reprices a shipment history under the proposed rate file and exits (in memory only)
+        //--metrics prints call counts, errors and latencies for each use case on exit
+        //--tenants=<name>,<name> adds a rate catalogue for each retailer, starting from the same rates
+        //--cache remembers recent quotes, --cache=<kg> also charges each parcel as the lightest weight of its band
+        String dbFile = null;
+        String importFile = null;
+        String serve = null;
+        String tenantNames = null;
+        String watchDir = null;
+        String historyFile = null;
+        String proposedFile = null;
+        String cacheBand = null;
+        boolean metrics = false;
+        boolean offHeap = false;
+        for (String arg : args) {
+            if (arg.startsWith("--db=")) {
+                dbFile = arg.substring("--db=".length());
+            } else if (arg.startsWith("--import=")) {
+                importFile = arg.substring("--import=".length());
+            } else if (arg.startsWith("--serve")) {
+                serve = arg.substring("--serve".length());
+            } else if (arg.startsWith("--watch=")) {
+                watchDir = arg.substring("--watch=".length());
+            } else if (arg.startsWith("--reprice=")) {
+                historyFile = arg.substring("--reprice=".length());
+            } else if (arg.startsWith("--proposed=")) {
+                proposedFile = arg.substring("--proposed=".length());
+            } else if (arg.equals("--offheap")) {
+                offHeap = true;
+            } else if (arg.equals("--metrics")) {
+                metrics = true;
+            } else if (arg.startsWith("--cache")) {
+                cacheBand = arg.substring("--cache".length());
+            } else if (arg.startsWith("--tenants=")) {
+                tenantNames = arg.substring("--tenants=".length());
+            }
+        }
 
-        applicationcode.usecase.putregion.Required putRegionDatabaseAdapter = new PutRegionDatabaseAdapter(shippingCostDatabase); // Create an adapter for the database
-        applicationcode.usecase.putregion.Provided putRegions = applicationcode.usecase.putregion.Provided.create(putRegionDatabaseAdapter);
+        applicationcode.usecase.putregion.Required putRegionDatabaseAdapter;
+        applicationcode.usecase.listavailablecountries.Required listAvailableCountriesDatabaseAdapter;
+        applicationcode.usecase.calculateshipping.Required shippingCostDatabaseAdapter;
+        PutRegionDatabaseAdapter reloadableDatabaseAdapter = null;
+        ShippingCostDatabase inMemoryDatabase = null;
+        boolean empty;
 
-        applicationcode.usecase.listavailablecountries.Required listAvailableCountriesDatabaseAdapter = new ListAvailableCountriesDatabaseAdapter(shippingCostDatabase); // Create an adapter for the database
-        applicationcode.usecase.listavailablecountries.Provided listCountries = applicationcode.usecase.listavailablecountries.Provided.create(listAvailableCountriesDatabaseAdapter);
+        if (dbFile != null && offHeap) {
+            throw new IllegalArgumentException("--db and --offheap cannot be used together");
+        }
 
-        applicationcode.usecase.calculateshipping.Required shippingCostDatabaseAdapter = new CalculateShippingDatabaseAdapter(shippingCostDatabase); // Create an adapter for the database
+        if (offHeap) {
+            OffHeapRateStoreAdapter offHeapRateStoreAdapter = new OffHeapRateStoreAdapter(); // One adapter serves all the use cases
+            putRegionDatabaseAdapter = offHeapRateStoreAdapter;
+            listAvailableCountriesDatabaseAdapter = offHeapRateStoreAdapter;
+            shippingCostDatabaseAdapter = offHeapRateStoreAdapter;
+            empty = true;
+        } else if (dbFile == null) {
+            ShippingCostDatabase shippingCostDatabase = new ShippingCostDatabase(); // Create an instance of ShippingCostDatabase
+            inMemoryDatabase = shippingCostDatabase;
+            reloadableDatabaseAdapter = new PutRegionDatabaseAdapter(shippingCostDatabase); // Create an adapter for the database
+            putRegionDatabaseAdapter = reloadableDatabaseAdapter;
+            listAvailableCountriesDatabaseAdapter = new ListAvailableCountriesDatabaseAdapter(shippingCostDatabase); // Create an adapter for the database
+            shippingCostDatabaseAdapter = new CountryCodeIndexDatabaseAdapter(shippingCostDatabase); // Create an adapter that indexes the country codes
+            empty = true;
+        } else {
+            MappedFileDatabaseAdapter mappedFileDatabaseAdapter = MappedFileDatabaseAdapter.open(Path.of(dbFile)); // Map the file, one adapter serves all the use cases
+            putRegionDatabaseAdapter = mappedFileDatabaseAdapter;
+            listAvailableCountriesDatabaseAdapter = mappedFileDatabaseAdapter;
+            shippingCostDatabaseAdapter = mappedFileDatabaseAdapter;
+            empty = mappedFileDatabaseAdapter.getVersion() == 0;
+        }
+
+        applicationcode.usecase.putregion.Provided putRegions = applicationcode.usecase.putregion.Provided.create(putRegionDatabaseAdapter);
+        applicationcode.usecase.listavailablecountries.Provided listCountries = applicationcode.usecase.listavailablecountries.Provided.create(listAvailableCountriesDatabaseAdapter);
         applicationcode.usecase.calculateshipping.Provided calculateShipping = applicationcode.usecase.calculateshipping.Provided.create(shippingCostDatabaseAdapter);
 
-        ShippingCostDatabaseInitializer initializer = new ShippingCostDatabaseInitializer(putRegions); // Initialize the database with some data
-        initializer.initializeDb();
+        Runnable invalidateQuotes = () -> {
+        };
+        if (cacheBand != null) {
+            double weightBand = cacheBand.startsWith("=") ? Double.parseDouble(cacheBand.substring(1)) : 0;
+            ShippingQuoteCache quoteCache = new ShippingQuoteCache(calculateShipping, 10_000, weightBand); // Remember recent quotes
+            calculateShipping = quoteCache;
+            putRegions = new InvalidatingPutRegion(putRegions, quoteCache); // Forget them when the rates change
+            invalidateQuotes = quoteCache::invalidate;
+        }
 
-        ShippingCostCliAdapter cli = new ShippingCostCliAdapter(listCountries, calculateShipping); // Create an instance of a CLI for using the calculate shipping method
-        cli.run();
+        Instrumentation instrumentation = new Instrumentation(); // Time every call through the Provided ports
+        calculateShipping = new InstrumentedCalculateShipping(calculateShipping, instrumentation);
+        listCountries = new InstrumentedListAvailableCountries(listCountries, instrumentation);
+        putRegions = new InstrumentedPutRegion(putRegions, instrumentation);
+        if (metrics) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(instrumentation.toText())));
+        }
 
-    }
+        if (empty) {
+            ShippingCostDatabaseInitializer initializer = new ShippingCostDatabaseInitializer(putRegions); // Initialize the database with some data
+            initializer.initializeDb();
+        }
 
+        if (importFile != null) {
+            RateFileImportAdapter importer = new RateFileImportAdapter(putRegions, 100_000); // Stream the rate file into the putregion use case
+            ImportReport report = importer.importFrom(Path.of(importFile));
+            System.out.format("Imported %s: %s%n", importFile, report);
+            report.getProblems().forEach(System.out::println);
+        }
 
+        if (historyFile != null) {
+            if (inMemoryDatabase == null || proposedFile == null) {
+                throw new IllegalArgumentException("--reprice needs --proposed and cannot be used with --db or --offheap");
+            }
+            Set<applicationcode.usecase.putregion.Region> proposedRegions = new HashSet<>();
+            ImportReport report = new RateFileImportAdapter(proposedRegions::addAll, Integer.MAX_VALUE).importFrom(Path.of(proposedFile)); // Read the proposed rates without putting them
+            report.getProblems().forEach(System.out::println);
+            applicationcode.usecase.repricing.Provided repricing = applicationcode.usecase.repricing.Provided.create(new ShipmentHistoryFileAdapter(Path.of(historyFile), inMemoryDatabase));
+            System.out.print(repricing.simulate(toTariff(proposedRegions)));
+            return;
+        }
 
+        if (watchDir != null) {
+            if (reloadableDatabaseAdapter == null) {
+                throw new IllegalArgumentException("--watch cannot be used with --db or --offheap");
+            }
+            RateDirectoryWatcher watcher = new RateDirectoryWatcher(Path.of(watchDir), reloadableDatabaseAdapter::replace, invalidateQuotes); // Swap in new rates off the request path
+            watcher.start();
+        }
 
+        TenantCatalogues tenants = new TenantCatalogues(); // Each retailer gets its own rates, sharing the values they have in common
+        if (tenantNames != null) {
+            for (String tenant : tenantNames.split(",")) {
+                new ShippingCostDatabaseInitializer(tenants.add(tenant.trim()).putRegions()).initializeDb();
+            }
+        }
 
+        if (serve == null) {
+            ShippingCostCliAdapter cli = new ShippingCostCliAdapter(listCountries, calculateShipping); // Create an instance of a CLI for using the calculate shipping method
+            cli.run();
+        } else {
+            ShippingCostLineProtocolAdapter server = new ShippingCostLineProtocolAdapter(listCountries, calculateShipping, tenants, instrumentation); // Answer many requests concurrently
+            if (serve.startsWith("=")) {
+                server.serve(Integer.parseInt(serve.substring(1)));
+            } else {
+                server.serve(System.in, System.out);
+            }
+        }
 
+    }
+
+    private static applicationcode.usecase.repricing.Tariff toTariff(Set<applicationcode.usecase.putregion.Region> regions) {
+        applicationcode.usecase.repricing.Tariff tariff = new applicationcode.usecase.repricing.Tariff();
+        for (applicationcode.usecase.putregion.Region region : regions) {
+            tariff.addRegion(region.getCode(), region.getMinCharge(), region.getCostPerKg(), region.getBandWeights(), region.getBandPrices());
+            for (applicationcode.usecase.putregion.Country country : region.getCountries()) {
+                tariff.addCountry(country.getCode(), region.getCode());
+            }
+        }
+        return tariff;
+    }
 }
@@ -0,0 +1,35 @@
+package applicationcode.domainmodel;
+
+import java.util.Arrays;
+
+//Step tariff: a parcel costs the price of the first band whose weight limit it does not exceed
+class BandedShippingStrategy implements ShippingCostStrategy {
+    private final double[] bandWeights;
+    private final double[] bandPrices;
+
+    BandedShippingStrategy(double[] bandWeights, double[] bandPrices) {
+        WeightBands.validate(bandWeights, bandPrices);
+        if (bandWeights.length == 0) {
+            throw new IllegalArgumentException("A banded tariff needs at least one band");
+        }
+        this.bandWeights = bandWeights.clone();
+        this.bandPrices = bandPrices.clone();
+    }
+
+    @Override
+    public double calculate(double weight) {
+        int band = Arrays.binarySearch(bandWeights, weight);
+        if (band < 0) {
+            band = -band - 1;
+        }
+        if (band == bandWeights.length) {
+            throw new IllegalArgumentException("Weight exceeds the heaviest band");
+        }
+        return bandPrices[band];
+    }
+
+    @Override
+    public double getMaxWeight() {
+        return bandWeights[bandWeights.length - 1];
+    }
+}
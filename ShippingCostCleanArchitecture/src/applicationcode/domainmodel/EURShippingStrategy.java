@@ -11,4 +11,9 @@ class EURShippingStrategy implements ShippingCostStrategy {
     public double calculate(double weight) {
         return weight * costPerKg;
     }
+
+    @Override
+    public void calculate(double[] weights, double[] costs, int from, int to) {
+        ShippingCostKernels.multiply(weights, costPerKg, costs, from, to);
+    }
 }
@@ -13,4 +13,9 @@ class ROWShippingStrategy implements ShippingCostStrategy {
     public double calculate(double weight) {
         return Math.max(minCharge, weight * costPerKg);
     }
+
+    @Override
+    public void calculate(double[] weights, double[] costs, int from, int to) {
+        ShippingCostKernels.multiplyAtLeast(weights, minCharge, costPerKg, costs, from, to);
+    }
 }
@@ -0,0 +1,31 @@
+package applicationcode.domainmodel;
+
+//Bulk pricing loops, run with the Vector API when the JVM was started with --add-modules jdk.incubator.vector
+//-Dshipping.vectorKernels=false keeps the scalar loops even then, so the two can be compared in one build
+final class ShippingCostKernels {
+    static final boolean VECTORISED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Boolean.parseBoolean(System.getProperty("shipping.vectorKernels", "true"));
+
+    private ShippingCostKernels() {
+    }
+
+    static void multiply(double[] weights, double costPerKg, double[] costs, int from, int to) {
+        if (VECTORISED) {
+            VectorKernels.multiply(weights, costPerKg, costs, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            costs[i] = weights[i] * costPerKg;
+        }
+    }
+
+    static void multiplyAtLeast(double[] weights, double minCharge, double costPerKg, double[] costs, int from, int to) {
+        if (VECTORISED) {
+            VectorKernels.multiplyAtLeast(weights, minCharge, costPerKg, costs, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            costs[i] = Math.max(minCharge, weights[i] * costPerKg);
+        }
+    }
+}
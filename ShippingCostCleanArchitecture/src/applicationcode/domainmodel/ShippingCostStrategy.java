@@ -2,4 +2,16 @@ package applicationcode.domainmodel;
 
 interface ShippingCostStrategy {
     double calculate(double weight);
+
+    //Heavier parcels cannot be priced
+    default double getMaxWeight() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    //Prices weights[from..to) into costs[from..to)
+    default void calculate(double[] weights, double[] costs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            costs[i] = calculate(weights[i]);
+        }
+    }
 }
@@ -14,6 +14,14 @@ public class ShippingRegion {
         return strategy.calculate(weight);
     }
 
+    public double getMaxWeight() {
+        return strategy.getMaxWeight();
+    }
+
+    public void calculate(double[] weights, double[] costs, int from, int to) {
+        strategy.calculate(weights, costs, from, to);
+    }
+
     @Override
     public String toString() {
         return String.format("ShippingRegion{region=%s, strategy=%s}", region, strategy.getClass().getSimpleName()
@@ -6,6 +6,14 @@ public class ShippingRegionFactory {
         return new ShippingRegion(region, chooseStrategy(region, minCharge, costPerKg));
     }
 
+    //Regions with weight bands are priced from the bands, otherwise by the region's own strategy
+    public static ShippingRegion create(Region region, double minCharge, double costPerKg, double[] bandWeights, double[] bandPrices) {
+        if (bandWeights == null || bandWeights.length == 0) {
+            return create(region, minCharge, costPerKg);
+        }
+        return new ShippingRegion(region, new BandedShippingStrategy(bandWeights, bandPrices));
+    }
+
     private static ShippingCostStrategy chooseStrategy(Region region, double minCharge, double costPerKg) {
         return switch (region) {
             case UK -> new UKShippingStrategy();
@@ -15,4 +23,3 @@ public class ShippingRegionFactory {
         };
     }
 }
-
@@ -1,5 +1,7 @@
 package applicationcode.domainmodel;
 
+import java.util.Arrays;
+
 class UKShippingStrategy implements ShippingCostStrategy {
     private static final double ZERO = 0.0d;
 
@@ -10,4 +12,9 @@ class UKShippingStrategy implements ShippingCostStrategy {
     public double calculate(double weight) {
         return ZERO;
     }
+
+    @Override
+    public void calculate(double[] weights, double[] costs, int from, int to) {
+        Arrays.fill(costs, from, to, ZERO);
+    }
 }
@@ -0,0 +1,34 @@
+package applicationcode.domainmodel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+//Only loaded when the jdk.incubator.vector module is present, see ShippingCostKernels
+final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static void multiply(double[] weights, double costPerKg, double[] costs, int from, int to) {
+        int i = from;
+        int upperBound = from + SPECIES.loopBound(to - from);
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, weights, i).mul(costPerKg).intoArray(costs, i);
+        }
+        for (; i < to; i++) {
+            costs[i] = weights[i] * costPerKg;
+        }
+    }
+
+    static void multiplyAtLeast(double[] weights, double minCharge, double costPerKg, double[] costs, int from, int to) {
+        int i = from;
+        int upperBound = from + SPECIES.loopBound(to - from);
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, weights, i).mul(costPerKg).max(minCharge).intoArray(costs, i);
+        }
+        for (; i < to; i++) {
+            costs[i] = Math.max(minCharge, weights[i] * costPerKg);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package applicationcode.domainmodel;
+
+//The rules a step tariff's bands must follow, checked wherever bands come in so the checks cannot drift apart
+public final class WeightBands {
+    private WeightBands() {
+    }
+
+    //No bands at all is allowed here, and means the region is not priced by bands
+    public static void validate(double[] bandWeights, double[] bandPrices) {
+        if (bandWeights == null || bandPrices == null) {
+            throw new IllegalArgumentException("Band weights and prices must not be null");
+        }
+        if (bandWeights.length != bandPrices.length) {
+            throw new IllegalArgumentException("Band weights and prices must be the same length");
+        }
+        for (int i = 0; i < bandWeights.length; i++) {
+            if (bandWeights[i] <= 0 || (i > 0 && bandWeights[i] <= bandWeights[i - 1])) {
+                throw new IllegalArgumentException("Band weights must be positive and in ascending order");
+            }
+            if (bandPrices[i] < 0) {
+                throw new IllegalArgumentException("Band prices must not be negative");
+            }
+        }
+    }
+}
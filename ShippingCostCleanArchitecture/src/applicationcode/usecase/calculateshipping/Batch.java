@@ -0,0 +1,86 @@
+package applicationcode.usecase.calculateshipping;
+
+import applicationcode.domainmodel.ShippingRegion;
+
+import java.util.Arrays;
+
+//Groups the parcels of a batch by region so each region prices all of its parcels in one bulk call.
+//Parcels to different regions are usually interleaved, so pricing runs of neighbours would hand the
+//kernels one or two parcels at a time; instead the weights are copied into one contiguous range per region,
+//priced there, and the costs copied back into place.
+//Only one thread uses a Batch, and it grows to the largest batch that thread has priced.
+final class Batch {
+    private ShippingRegion[] regions = new ShippingRegion[4];
+    private int[] parcelCounts = new int[4];
+    private int regionCount;
+    //The group each parcel belongs to, then where its weight sits in the grouped arrays
+    private int[] groupOf = new int[0];
+    private int[] parcelAt = new int[0];
+    private double[] groupedWeights = new double[0];
+    private double[] groupedCosts = new double[0];
+
+    Batch ensureCapacity(int parcels) {
+        if (groupOf.length < parcels) {
+            groupOf = new int[parcels];
+            parcelAt = new int[parcels];
+            groupedWeights = new double[parcels];
+            groupedCosts = new double[parcels];
+        }
+        Arrays.fill(regions, 0, regionCount, null);
+        regionCount = 0;
+        return this;
+    }
+
+    void add(int parcel, ShippingRegion shippingRegion) {
+        //A rate card has one ShippingRegion per region, and there are only a handful of regions
+        int group = 0;
+        while (group < regionCount && regions[group] != shippingRegion) {
+            group++;
+        }
+        if (group == regionCount) {
+            if (regionCount == regions.length) {
+                regions = Arrays.copyOf(regions, regionCount * 2);
+                parcelCounts = Arrays.copyOf(parcelCounts, regionCount * 2);
+            }
+            regions[regionCount] = shippingRegion;
+            parcelCounts[regionCount++] = 0;
+        }
+        parcelCounts[group]++;
+        groupOf[parcel] = group;
+    }
+
+    //Prices every parcel added since ensureCapacity
+    void price(double[] weights, double[] costs) {
+        int parcels = weights.length;
+        if (regionCount == 1) {
+            //Already one contiguous group
+            regions[0].calculate(weights, costs, 0, parcels);
+            return;
+        }
+
+        //parcelCounts becomes where each group starts, then where its next parcel goes
+        int start = 0;
+        for (int group = 0; group < regionCount; group++) {
+            int count = parcelCounts[group];
+            parcelCounts[group] = start;
+            start += count;
+        }
+        for (int i = 0; i < parcels; i++) {
+            int position = parcelCounts[groupOf[i]]++;
+            groupedWeights[position] = weights[i];
+            parcelAt[position] = i;
+        }
+
+        //Each group now ends where the next one starts
+        int from = 0;
+        for (int group = 0; group < regionCount; group++) {
+            int to = parcelCounts[group];
+            regions[group].calculate(groupedWeights, groupedCosts, from, to);
+            from = to;
+        }
+
+        for (int position = 0; position < parcels; position++) {
+            costs[parcelAt[position]] = groupedCosts[position];
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package applicationcode.usecase.calculateshipping;
+
+//Two letter upper case ISO country codes packed into a short, so they can index a 26 x 26 array
+public final class CountryCodes {
+    public static final int SLOTS = 26 * 26;
+
+    private CountryCodes() {
+    }
+
+    //Packs 'A'..'Z' 'A'..'Z' into 0..675, or -1 when the code does not fit
+    public static short pack(String countryCode) {
+        if (countryCode == null || countryCode.length() != 2) {
+            return -1;
+        }
+        int first = countryCode.charAt(0) - 'A';
+        int second = countryCode.charAt(1) - 'A';
+        if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+            return -1;
+        }
+        return (short) (first * 26 + second);
+    }
+}
@@ -7,5 +7,20 @@ public interface Provided {
     }
 
     double calculate(String countryCode, double weight);
-}
 
+    //Prices many parcels in one call, writing the cost of parcel i into costs[i]
+    void calculate(String[] countryCodes, double[] weights, double[] costs);
+
+    //The request was checked when it was built, so only the lookups can fail
+    default double calculate(ShippingRequest request) {
+        return calculate(request.countryCode(), request.weight());
+    }
+
+    //Never throws for bad input and allocates nothing: writes the cost into cost[0] and returns OK,
+    //or returns why the parcel cannot be priced. Bad input is rejected before any lookup.
+    ResultCode tryCalculate(String countryCode, double weight, double[] cost);
+
+    default ResultCode tryCalculate(ShippingRequest request, double[] cost) {
+        return tryCalculate(request.countryCode(), request.weight(), cost);
+    }
+}
@@ -0,0 +1,150 @@
+package applicationcode.usecase.calculateshipping;
+
+import applicationcode.domainmodel.Region;
+import applicationcode.domainmodel.ShippingRegion;
+import applicationcode.domainmodel.ShippingRegionFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Immutable snapshot mapping each country code straight to the ShippingRegion that prices it
+//Two letter codes are found with one load from a 26 x 26 array, see CountryCodes; only other codes are hashed
+//When the store says a card is not worth compiling, it only keeps one ShippingRegion per region
+//and asks the store for each code's region
+final class RateCard {
+    private final long version;
+    private final Map<String, ShippingRegion> shippingRegions;
+    //The same ShippingRegions for the two letter codes, indexed by CountryCodes.pack
+    private final ShippingRegion[] packedShippingRegions;
+    //Why each country whose region could not be built is missing from the card, so failures need no lookup
+    private final Map<String, ResultCode> problems;
+    private final Required required;
+    private final Map<String, ShippingRegion> regions = new ConcurrentHashMap<>();
+    private final Map<String, ResultCode> regionProblems = new ConcurrentHashMap<>();
+
+    private RateCard(long version, Map<String, ShippingRegion> shippingRegions, Map<String, ResultCode> problems, Required required) {
+        this.version = version;
+        this.shippingRegions = shippingRegions;
+        this.packedShippingRegions = new ShippingRegion[CountryCodes.SLOTS];
+        for (Map.Entry<String, ShippingRegion> country : shippingRegions.entrySet()) {
+            short slot = CountryCodes.pack(country.getKey());
+            if (slot >= 0) {
+                packedShippingRegions[slot] = country.getValue();
+            }
+        }
+        this.problems = problems;
+        this.required = required;
+    }
+
+    static RateCard compile(Required required, long version) {
+        if (!required.isRateCardWorthCompiling()) {
+            return new RateCard(version, Map.of(), Map.of(), required);
+        }
+        Map<String, ShippingRegion> regions = new HashMap<>();
+        Map<String, ResultCode> regionProblems = new HashMap<>();
+        Map<String, ShippingRegion> countries = new HashMap<>();
+        Map<String, ResultCode> problems = new HashMap<>();
+        for (String countryCode : required.getCountryCodes()) {
+            String regionCode = required.getRegionCode(countryCode);
+            if (regionCode == null || regionCode.isEmpty()) {
+                continue;
+            }
+            //Countries in the same region share one ShippingRegion and strategy
+            ShippingRegion shippingRegion = regions.get(regionCode);
+            if (shippingRegion == null) {
+                ResultCode problem = regionProblems.computeIfAbsent(regionCode, code -> check(required, code));
+                if (problem != ResultCode.OK) {
+                    //Left out of the card, so the use case reports the problem when the country is requested
+                    problems.put(countryCode, problem);
+                    continue;
+                }
+                try {
+                    shippingRegion = create(required, regionCode);
+                } catch (IllegalArgumentException e) {
+                    //e.g. bands the factory rejects
+                    regionProblems.put(regionCode, ResultCode.UNKNOWN_REGION);
+                    problems.put(countryCode, ResultCode.UNKNOWN_REGION);
+                    continue;
+                }
+                regions.put(regionCode, shippingRegion);
+            }
+            countries.put(countryCode, shippingRegion);
+        }
+        return new RateCard(version, Map.copyOf(countries), Map.copyOf(problems), null);
+    }
+
+    static ShippingRegion create(Required required, String regionCode) {
+        ShippingCost shippingCost = required.getShippingCostForRegion(regionCode);
+
+        if (shippingCost == null) {
+            throw new IllegalArgumentException("No shipping cost found for region: " + regionCode);
+        }
+
+        Region region = Region.valueOf(regionCode);
+
+        return ShippingRegionFactory.create(region, shippingCost.getMinCharge(), shippingCost.getCostPerKg(),
+                shippingCost.getBandWeights(), shippingCost.getBandPrices());
+    }
+
+    //Whether create would succeed, worked out once per region rather than by catching its exception on every request
+    private static ResultCode check(Required required, String regionCode) {
+        if (required.getShippingCostForRegion(regionCode) == null) {
+            return ResultCode.NO_SHIPPING_COST;
+        }
+        for (Region region : Region.values()) {
+            if (region.name().equals(regionCode)) {
+                return ResultCode.OK;
+            }
+        }
+        return ResultCode.UNKNOWN_REGION;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    ShippingRegion get(String countryCode) {
+        short slot = CountryCodes.pack(countryCode);
+        ShippingRegion shippingRegion = slot >= 0 ? packedShippingRegions[slot] : shippingRegions.get(countryCode);
+        if (shippingRegion != null || required == null) {
+            return shippingRegion;
+        }
+        String regionCode = required.getRegionCode(countryCode);
+        if (regionCode == null || regionCode.isEmpty()) {
+            return null;
+        }
+        shippingRegion = regions.get(regionCode);
+        if (shippingRegion == null && regionProblem(regionCode) == ResultCode.OK) {
+            try {
+                shippingRegion = create(required, regionCode);
+            } catch (IllegalArgumentException e) {
+                regionProblems.put(regionCode, ResultCode.UNKNOWN_REGION);
+                return null;
+            }
+            regions.putIfAbsent(regionCode, shippingRegion);
+        }
+        return shippingRegion;
+    }
+
+    //Why get returned null for the country
+    ResultCode problem(String countryCode) {
+        if (required == null) {
+            return problems.getOrDefault(countryCode, ResultCode.UNKNOWN_COUNTRY);
+        }
+        String regionCode = required.getRegionCode(countryCode);
+        if (regionCode == null || regionCode.isEmpty()) {
+            return ResultCode.UNKNOWN_COUNTRY;
+        }
+        return regionProblem(regionCode);
+    }
+
+    private ResultCode regionProblem(String regionCode) {
+        ResultCode problem = regionProblems.get(regionCode);
+        if (problem == null) {
+            problem = check(required, regionCode);
+            regionProblems.putIfAbsent(regionCode, problem);
+        }
+        return problem;
+    }
+}
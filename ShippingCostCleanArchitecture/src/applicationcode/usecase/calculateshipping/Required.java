@@ -1,8 +1,20 @@
 package applicationcode.usecase.calculateshipping;
 
+import java.util.Set;
+
 public interface Required {
     String getRegionCode(String countryCode);
 
     ShippingCost getShippingCostForRegion(String regionCode);
-}
 
+    Set<String> getCountryCodes();
+
+    //False when copying every country into a rate card would cost more than it saves, e.g. for very large
+    //stores; the use case then asks for each country's region and only keeps one ShippingRegion per region
+    default boolean isRateCardWorthCompiling() {
+        return true;
+    }
+
+    //Changes whenever the regions, countries or costs change
+    long getVersion();
+}
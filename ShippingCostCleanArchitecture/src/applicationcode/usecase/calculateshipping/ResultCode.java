@@ -0,0 +1,22 @@
+package applicationcode.usecase.calculateshipping;
+
+//Why tryCalculate could or could not price a parcel, with the message calculate would throw
+public enum ResultCode {
+    OK("OK"),
+    MISSING_COUNTRY_CODE("Country code cannot be null or empty"),
+    INVALID_WEIGHT("Weight must be greater than zero"),
+    UNKNOWN_COUNTRY("No Region code found for country"),
+    NO_SHIPPING_COST("No shipping cost found for region"),
+    UNKNOWN_REGION("No shipping strategy for region"),
+    WEIGHT_OVER_LIMIT("Weight exceeds the heaviest band");
+
+    private final String message;
+
+    ResultCode(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
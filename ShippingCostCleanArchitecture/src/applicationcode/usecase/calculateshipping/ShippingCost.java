@@ -1,12 +1,22 @@
 package applicationcode.usecase.calculateshipping;
 
 public class ShippingCost {
+    private static final double[] NO_BANDS = new double[0];
+
     private final double minCharge;
     private final double costPerKg;
+    private final double[] bandWeights;
+    private final double[] bandPrices;
 
     public ShippingCost(double minCharge, double costPerKg) {
+        this(minCharge, costPerKg, NO_BANDS, NO_BANDS);
+    }
+
+    public ShippingCost(double minCharge, double costPerKg, double[] bandWeights, double[] bandPrices) {
         this.minCharge = minCharge;
         this.costPerKg = costPerKg;
+        this.bandWeights = bandWeights;
+        this.bandPrices = bandPrices;
     }
 
     public double getMinCharge() {
@@ -15,5 +25,13 @@ public class ShippingCost {
     public double getCostPerKg() {
         return costPerKg;
     }
-}
 
+    //Empty when the region is not priced by weight bands
+    public double[] getBandWeights() {
+        return bandWeights;
+    }
+
+    public double[] getBandPrices() {
+        return bandPrices;
+    }
+}
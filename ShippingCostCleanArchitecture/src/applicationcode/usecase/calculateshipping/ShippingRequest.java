@@ -0,0 +1,23 @@
+package applicationcode.usecase.calculateshipping;
+
+//A parcel to price whose country code and weight have already been checked
+public record ShippingRequest(String countryCode, double weight) {
+
+    public ShippingRequest {
+        ResultCode result = validate(countryCode, weight);
+        if (result != ResultCode.OK) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+    }
+
+    //Checks the input without allocating, NaN is not a weight
+    public static ResultCode validate(String countryCode, double weight) {
+        if (countryCode == null || countryCode.isEmpty()) {
+            return ResultCode.MISSING_COUNTRY_CODE;
+        }
+        if (!(weight > 0)) {
+            return ResultCode.INVALID_WEIGHT;
+        }
+        return ResultCode.OK;
+    }
+}
@@ -1,11 +1,13 @@
 package applicationcode.usecase.calculateshipping;
 
-import applicationcode.domainmodel.Region;
 import applicationcode.domainmodel.ShippingRegion;
-import applicationcode.domainmodel.ShippingRegionFactory;
 
 class UseCase implements Provided {
+    //Scratch space for grouping a batch by region, reused by each thread so batches allocate nothing once warm
+    private static final ThreadLocal<Batch> BATCH = ThreadLocal.withInitial(Batch::new);
+
     private final Required required;
+    private volatile RateCard rateCard;
 
     UseCase(Required required) {
         this.required = required;
@@ -13,30 +15,123 @@ class UseCase implements Provided {
 
     @Override
     public double calculate(String countryCode, double weight) {
-        if (countryCode == null || countryCode.isEmpty()) {
-            throw new IllegalArgumentException("Country code cannot be null or empty");
+        ShippingRegion shippingRegion = getShippingRegion(rateCard(), countryCode);
+
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be greater than zero");
         }
 
-        String regionCode = required.getRegionCode(countryCode);
+        return shippingRegion.calculate(weight);
+    }
 
-        if (regionCode == null || regionCode.isEmpty()) {
-            throw new IllegalArgumentException("No Region code found for country: " + countryCode);
+    @Override
+    public double calculate(ShippingRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request cannot be null");
         }
+        return getShippingRegion(rateCard(), request.countryCode()).calculate(request.weight());
+    }
 
-        ShippingCost shippingCost = required.getShippingCostForRegion(regionCode);
+    @Override
+    public ResultCode tryCalculate(String countryCode, double weight, double[] cost) {
+        if (cost == null || cost.length == 0) {
+            throw new IllegalArgumentException("Cost must have room for one value");
+        }
+        //Scrapers send a lot of bad input, so it is turned away before touching the rate card
+        ResultCode result = ShippingRequest.validate(countryCode, weight);
+        if (result != ResultCode.OK) {
+            return result;
+        }
+        return price(countryCode, weight, cost);
+    }
 
-        if (shippingCost == null) {
-            throw new IllegalArgumentException("No shipping cost found for region: " + regionCode);
+    @Override
+    public ResultCode tryCalculate(ShippingRequest request, double[] cost) {
+        if (cost == null || cost.length == 0) {
+            throw new IllegalArgumentException("Cost must have room for one value");
+        }
+        if (request == null) {
+            throw new IllegalArgumentException("Request cannot be null");
         }
+        return price(request.countryCode(), request.weight(), cost);
+    }
 
-        if (weight <= 0) {
-            throw new IllegalArgumentException("Weight must be greater than zero");
+    //The input has already been checked
+    private ResultCode price(String countryCode, double weight, double[] cost) {
+        RateCard current = rateCard();
+        ShippingRegion shippingRegion = current.get(countryCode);
+        if (shippingRegion == null) {
+            return current.problem(countryCode);
         }
+        if (weight > shippingRegion.getMaxWeight()) {
+            return ResultCode.WEIGHT_OVER_LIMIT;
+        }
+        cost[0] = shippingRegion.calculate(weight);
+        return ResultCode.OK;
+    }
 
-        Region region = Region.valueOf(regionCode);
+    @Override
+    public void calculate(String[] countryCodes, double[] weights, double[] costs) {
+        if (countryCodes == null || weights == null || costs == null) {
+            throw new IllegalArgumentException("Country codes, weights and costs cannot be null");
+        }
+        if (countryCodes.length != weights.length || countryCodes.length != costs.length) {
+            throw new IllegalArgumentException("Country codes, weights and costs must be the same length");
+        }
 
-        ShippingRegion shippingRegion = ShippingRegionFactory.create(region, shippingCost.getMinCharge(), shippingCost.getCostPerKg());
+        //Price the whole batch against one rate card
+        RateCard current = rateCard();
+        int parcels = countryCodes.length;
+        Batch batch = BATCH.get().ensureCapacity(parcels);
 
-        return shippingRegion.calculate(weight);
+        //Every parcel is checked before any is priced, so a bad one leaves costs untouched
+        for (int i = 0; i < parcels; i++) {
+            ShippingRegion shippingRegion = getShippingRegion(current, countryCodes[i]);
+
+            if (!(weights[i] > 0)) {
+                throw new IllegalArgumentException(ResultCode.INVALID_WEIGHT.getMessage());
+            }
+            if (weights[i] > shippingRegion.getMaxWeight()) {
+                throw new IllegalArgumentException(ResultCode.WEIGHT_OVER_LIMIT.getMessage());
+            }
+
+            batch.add(i, shippingRegion);
+        }
+
+        batch.price(weights, costs);
+    }
+
+    private ShippingRegion getShippingRegion(RateCard current, String countryCode) {
+        if (countryCode == null || countryCode.isEmpty()) {
+            throw new IllegalArgumentException("Country code cannot be null or empty");
+        }
+
+        ShippingRegion shippingRegion = current.get(countryCode);
+        if (shippingRegion != null) {
+            return shippingRegion;
+        }
+
+        //Not in the rate card, so go back to the database to find out why
+        String regionCode = required.getRegionCode(countryCode);
+
+        if (regionCode == null || regionCode.isEmpty()) {
+            throw new IllegalArgumentException("No Region code found for country: " + countryCode);
+        }
+
+        return RateCard.create(required, regionCode);
+    }
+
+    //Recompiles the rate card when the database version moves on; readers never block
+    private RateCard rateCard() {
+        RateCard current = rateCard;
+        long version = required.getVersion();
+        if (current == null || current.getVersion() != version) {
+            do {
+                current = RateCard.compile(required, version);
+                version = required.getVersion();
+            } while (current.getVersion() != version);
+            rateCard = current;
+        }
+        return current;
     }
 }
@@ -0,0 +1,30 @@
+package applicationcode.usecase.listavailablecountries;
+
+public class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long rebuilds;
+
+    public CacheStatistics(long hits, long misses, long rebuilds) {
+        this.hits = hits;
+        this.misses = misses;
+        this.rebuilds = rebuilds;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStatistics{hits=%d, misses=%d, rebuilds=%d}", hits, misses, rebuilds);
+    }
+}
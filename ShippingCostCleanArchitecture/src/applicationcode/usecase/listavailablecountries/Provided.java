@@ -8,5 +8,6 @@ public interface Provided {
         return new UseCase(required);
     }
     Set<String> list();
-}
 
+    CacheStatistics getCacheStatistics();
+}
@@ -5,5 +5,7 @@ import java.util.Set;
 public interface Required {
     Set<String> getRegionCodes();
     Set<String> getCountryCodes();
-}
 
+    //Changes whenever the regions or countries change
+    long getVersion();
+}
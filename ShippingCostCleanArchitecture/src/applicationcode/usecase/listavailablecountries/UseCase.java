@@ -1,9 +1,16 @@
 package applicationcode.usecase.listavailablecountries;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 class UseCase implements Provided {
     private final Required required;
+    //Every caller shares the same immutable set until the database version changes
+    private final AtomicReference<Countries> countries = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
 
     UseCase(Required required) {
         this.required = required;
@@ -11,6 +18,26 @@ class UseCase implements Provided {
 
     @Override
     public Set<String> list() {
-        return Set.copyOf(required.getCountryCodes());
+        Countries current = countries.get();
+        long version = required.getVersion();
+        if (current != null && current.version == version) {
+            hits.increment();
+            return current.countryCodes;
+        }
+
+        misses.increment();
+        Countries rebuilt = new Countries(version, Set.copyOf(required.getCountryCodes()));
+        if (countries.compareAndSet(current, rebuilt)) {
+            rebuilds.increment();
+        }
+        return rebuilt.countryCodes;
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), rebuilds.sum());
+    }
+
+    private record Countries(long version, Set<String> countryCodes) {
     }
 }
@@ -1,5 +1,7 @@
 package applicationcode.usecase.putregion;
 
+import applicationcode.domainmodel.WeightBands;
+
 import java.util.*;
 
 public class Region {
@@ -8,6 +10,8 @@ public class Region {
     private final double minCharge;
     private final double costPerKg;
     private final Set<Country> countries = new HashSet<>();
+    private double[] bandWeights = new double[0];
+    private double[] bandPrices = new double[0];
 
     public Region(String code, String name, double minCharge, double costPerKg) {
 
@@ -80,5 +84,20 @@ public class Region {
     public Set<Country> getCountries() {
         return Set.copyOf(countries);
     }
+
+    //Prices the region as a step tariff: a parcel up to bandWeights[i] kg costs bandPrices[i]
+    public void setBands(double[] bandWeights, double[] bandPrices) {
+        WeightBands.validate(bandWeights, bandPrices);
+        this.bandWeights = bandWeights.clone();
+        this.bandPrices = bandPrices.clone();
+    }
+
+    public double[] getBandWeights() {
+        return bandWeights.clone();
+    }
+
+    public double[] getBandPrices() {
+        return bandPrices.clone();
+    }
 }
 
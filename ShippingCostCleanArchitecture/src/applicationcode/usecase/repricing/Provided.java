@@ -0,0 +1,10 @@
+package applicationcode.usecase.repricing;
+
+public interface Provided {
+    static Provided create(Required required) {
+        return new UseCase(required);
+    }
+
+    //Prices every shipment in the history under the current and the proposed tariff
+    RepricingReport simulate(Tariff proposed);
+}
@@ -0,0 +1,55 @@
+package applicationcode.usecase.repricing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Revenue from the shipment history under the current and the proposed tariff, by region
+//A shipment is counted in the region each tariff puts it in, so a country that moves region shows up in both
+public class RepricingReport {
+    private final Map<String, Double> currentRevenue;
+    private final Map<String, Double> proposedRevenue;
+    private final long shipments;
+    private final long unpriced;
+
+    public RepricingReport(Map<String, Double> currentRevenue, Map<String, Double> proposedRevenue, long shipments, long unpriced) {
+        this.currentRevenue = Map.copyOf(currentRevenue);
+        this.proposedRevenue = Map.copyOf(proposedRevenue);
+        this.shipments = shipments;
+        this.unpriced = unpriced;
+    }
+
+    public double getCurrentRevenue(String regionCode) {
+        return currentRevenue.getOrDefault(regionCode, 0.0);
+    }
+
+    public double getProposedRevenue(String regionCode) {
+        return proposedRevenue.getOrDefault(regionCode, 0.0);
+    }
+
+    public double getDelta(String regionCode) {
+        return getProposedRevenue(regionCode) - getCurrentRevenue(regionCode);
+    }
+
+    public long getShipments() {
+        return shipments;
+    }
+
+    //Shipments left out of both totals because one or both tariffs could not price them,
+    //e.g. an unknown country or a weight over the last band
+    public long getUnpriced() {
+        return unpriced;
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Double> regions = new LinkedHashMap<>(currentRevenue);
+        regions.putAll(proposedRevenue);
+        StringBuilder report = new StringBuilder(String.format("RepricingReport{shipments=%d, unpriced=%d}%n", shipments, unpriced));
+        report.append(String.format("%-6s %16s %16s %16s%n", "Region", "Current", "Proposed", "Delta"));
+        for (String regionCode : regions.keySet().stream().sorted().toList()) {
+            report.append(String.format("%-6s %16.2f %16.2f %+16.2f%n", regionCode,
+                    getCurrentRevenue(regionCode), getProposedRevenue(regionCode), getDelta(regionCode)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package applicationcode.usecase.repricing;
+
+public interface Required {
+    Tariff getCurrentTariff();
+
+    //The history is split into partitions that can be read at the same time, on different threads
+    int getShipmentPartitions();
+
+    void readShipments(int partition, ShipmentConsumer consumer);
+
+    interface ShipmentConsumer {
+        void accept(String countryCode, double weight);
+    }
+}
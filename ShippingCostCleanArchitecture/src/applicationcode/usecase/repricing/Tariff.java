@@ -0,0 +1,42 @@
+package applicationcode.usecase.repricing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//A complete set of rates: the cost of each region and the region each country is in
+public class Tariff {
+    private final Map<String, Rate> regions = new HashMap<>();
+    private final Map<String, String> countries = new HashMap<>();
+
+    public void addRegion(String regionCode, double minCharge, double costPerKg) {
+        addRegion(regionCode, minCharge, costPerKg, new double[0], new double[0]);
+    }
+
+    public void addRegion(String regionCode, double minCharge, double costPerKg, double[] bandWeights, double[] bandPrices) {
+        if (regionCode == null || regionCode.isBlank()) {
+            throw new IllegalArgumentException("Region code must not be null or blank");
+        }
+        regions.put(regionCode, new Rate(minCharge, costPerKg, bandWeights.clone(), bandPrices.clone()));
+    }
+
+    public void addCountry(String countryCode, String regionCode) {
+        if (countryCode == null || countryCode.isBlank()) {
+            throw new IllegalArgumentException("Country code must not be null or blank");
+        }
+        if (!regions.containsKey(regionCode)) {
+            throw new IllegalArgumentException("Unknown region: " + regionCode);
+        }
+        countries.put(countryCode, regionCode);
+    }
+
+    Map<String, Rate> getRegions() {
+        return regions;
+    }
+
+    Map<String, String> getCountries() {
+        return countries;
+    }
+
+    record Rate(double minCharge, double costPerKg, double[] bandWeights, double[] bandPrices) {
+    }
+}
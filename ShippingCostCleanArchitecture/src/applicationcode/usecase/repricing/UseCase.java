@@ -0,0 +1,157 @@
+package applicationcode.usecase.repricing;
+
+import applicationcode.domainmodel.Region;
+import applicationcode.domainmodel.ShippingRegion;
+import applicationcode.domainmodel.ShippingRegionFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class UseCase implements Provided {
+    private final Required required;
+
+    UseCase(Required required) {
+        this.required = required;
+    }
+
+    @Override
+    public RepricingReport simulate(Tariff proposed) {
+        if (proposed == null) {
+            throw new IllegalArgumentException("Proposed tariff cannot be null");
+        }
+        Map<String, Route> routes = compile(required.getCurrentTariff(), proposed);
+
+        //Each partition is priced into its own accumulator, which are added together as the tasks join
+        Accumulator total = ForkJoinPool.commonPool().invoke(new Partitions(routes, 0, required.getShipmentPartitions()));
+
+        Map<String, Double> currentRevenue = new HashMap<>();
+        Map<String, Double> proposedRevenue = new HashMap<>();
+        for (Region region : Region.values()) {
+            if (total.currentPriced[region.ordinal()] > 0) {
+                currentRevenue.put(region.name(), total.currentRevenue[region.ordinal()]);
+            }
+            if (total.proposedPriced[region.ordinal()] > 0) {
+                proposedRevenue.put(region.name(), total.proposedRevenue[region.ordinal()]);
+            }
+        }
+        return new RepricingReport(currentRevenue, proposedRevenue, total.shipments, total.unpriced);
+    }
+
+    //Looks up both tariffs' regions for a country in one go
+    private static Map<String, Route> compile(Tariff current, Tariff proposed) {
+        Map<String, ShippingRegion> currentRegions = createShippingRegions(current);
+        Map<String, ShippingRegion> proposedRegions = createShippingRegions(proposed);
+        Map<String, Route> routes = new HashMap<>();
+        for (Map.Entry<String, String> country : current.getCountries().entrySet()) {
+            String proposedRegion = proposed.getCountries().get(country.getKey());
+            if (proposedRegion != null) {
+                routes.put(country.getKey(), new Route(
+                        Region.valueOf(country.getValue()).ordinal(), currentRegions.get(country.getValue()),
+                        Region.valueOf(proposedRegion).ordinal(), proposedRegions.get(proposedRegion)));
+            }
+        }
+        return Map.copyOf(routes);
+    }
+
+    private static Map<String, ShippingRegion> createShippingRegions(Tariff tariff) {
+        Map<String, ShippingRegion> shippingRegions = new HashMap<>();
+        for (Map.Entry<String, Tariff.Rate> entry : tariff.getRegions().entrySet()) {
+            Region region;
+            try {
+                region = Region.valueOf(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown region: " + entry.getKey());
+            }
+            Tariff.Rate rate = entry.getValue();
+            shippingRegions.put(entry.getKey(), ShippingRegionFactory.create(region, rate.minCharge(), rate.costPerKg(), rate.bandWeights(), rate.bandPrices()));
+        }
+        return shippingRegions;
+    }
+
+    private record Route(int currentRegion, ShippingRegion current, int proposedRegion, ShippingRegion proposed) {
+    }
+
+    private final class Partitions extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+
+        //Tasks are never serialized, they only run in this pool
+        private final transient Map<String, Route> routes;
+        private final int from;
+        private final int to;
+
+        private Partitions(Map<String, Route> routes, int from, int to) {
+            this.routes = routes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= 1) {
+                Accumulator accumulator = new Accumulator(routes);
+                if (from < to) {
+                    required.readShipments(from, accumulator);
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            Partitions left = new Partitions(routes, from, middle);
+            left.fork();
+            Accumulator right = new Partitions(routes, middle, to).compute();
+            return left.join().add(right);
+        }
+    }
+
+    //Only ever touched by the thread pricing its partition, so nothing is shared until the results are added up
+    private static final class Accumulator implements Required.ShipmentConsumer {
+        private final Map<String, Route> routes;
+        private final double[] currentRevenue = new double[Region.values().length];
+        private final double[] proposedRevenue = new double[Region.values().length];
+        private final long[] currentPriced = new long[Region.values().length];
+        private final long[] proposedPriced = new long[Region.values().length];
+        private long shipments;
+        private long unpriced;
+
+        private Accumulator(Map<String, Route> routes) {
+            this.routes = routes;
+        }
+
+        //A shipment only counts when both tariffs can price it, so the totals compare like with like
+        @Override
+        public void accept(String countryCode, double weight) {
+            shipments++;
+            Route route = routes.get(countryCode);
+            if (route == null || !(weight > 0)) {
+                unpriced++;
+                return;
+            }
+            double currentCost;
+            double proposedCost;
+            try {
+                currentCost = route.current().calculate(weight);
+                proposedCost = route.proposed().calculate(weight);
+            } catch (IllegalArgumentException e) {
+                unpriced++;
+                return;
+            }
+            currentRevenue[route.currentRegion()] += currentCost;
+            currentPriced[route.currentRegion()]++;
+            proposedRevenue[route.proposedRegion()] += proposedCost;
+            proposedPriced[route.proposedRegion()]++;
+        }
+
+        private Accumulator add(Accumulator other) {
+            for (int region = 0; region < currentRevenue.length; region++) {
+                currentRevenue[region] += other.currentRevenue[region];
+                proposedRevenue[region] += other.proposedRevenue[region];
+                currentPriced[region] += other.currentPriced[region];
+                proposedPriced[region] += other.proposedPriced[region];
+            }
+            shipments += other.shipments;
+            unpriced += other.unpriced;
+            return this;
+        }
+    }
+}
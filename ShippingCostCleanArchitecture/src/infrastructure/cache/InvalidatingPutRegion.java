@@ -0,0 +1,23 @@
+package infrastructure.cache;
+
+import applicationcode.usecase.putregion.Provided;
+import applicationcode.usecase.putregion.Region;
+
+import java.util.Set;
+
+//Decorates the putregion use case so that cached quotes are thrown away whenever rates change
+public class InvalidatingPutRegion implements Provided {
+    private final Provided putRegions;
+    private final ShippingQuoteCache cache;
+
+    public InvalidatingPutRegion(Provided putRegions, ShippingQuoteCache cache) {
+        this.putRegions = putRegions;
+        this.cache = cache;
+    }
+
+    @Override
+    public void put(Set<Region> regions) {
+        putRegions.put(regions);
+        cache.invalidate();
+    }
+}
@@ -0,0 +1,234 @@
+package infrastructure.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Decorates the calculateshipping use case with a bounded cache of quotes keyed on (country, weight)
+//
+//With a weight band, every parcel is charged as the lightest weight of its band, e.g. with 0.5 a 1.3kg parcel
+//is priced as 1.0kg, so one quote serves the whole band and a cached quote is the exact price of the weight it
+//was asked for. Rounding down never overcharges and never pushes a parcel past a region's heaviest band; a parcel
+//lighter than one band is priced at its own weight. Without a band the key is the exact weight.
+//
+//The quotes live in a lock-free table of primitive slots, in sets of WAYS slots picked by the key's hash.
+//Each slot is guarded by a sequence number that is odd while it is being written: readers take no lock, they
+//only check the sequence did not move while they read, and treat a slot being written as a miss. A writer that
+//finds the slot busy does not cache that quote. A full set evicts the slot least recently inserted or hit.
+//Country codes of up to three characters are packed into the key, longer ones are passed straight through.
+public class ShippingQuoteCache implements applicationcode.usecase.calculateshipping.Provided {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int WAYS = 4;
+    //seq, country, weight, cost, generation, used, padded so each slot has a cache line to itself
+    private static final int SLOT_LONGS = 8;
+    private static final int SEQ = 0;
+    private static final int COUNTRY = 1;
+    private static final int WEIGHT = 2;
+    private static final int COST = 3;
+    private static final int GENERATION = 4;
+    private static final int USED = 5;
+    private static final long NOT_PACKABLE = -1;
+
+    private final applicationcode.usecase.calculateshipping.Provided calculateShipping;
+    private final double weightBand;
+    private final long[] slots;
+    private final int setMask;
+    //Moves on at every invalidation; quotes from an older generation are never served
+    private final AtomicLong generation = new AtomicLong(1);
+    //Moves on at every insertion, and is what USED records, so a hit only writes to its slot once per insertion
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ShippingQuoteCache(applicationcode.usecase.calculateshipping.Provided calculateShipping, int maximumSize) {
+        this(calculateShipping, maximumSize, 0);
+    }
+
+    //A weightBand of 0 keys on the exact weight
+    public ShippingQuoteCache(applicationcode.usecase.calculateshipping.Provided calculateShipping, int maximumSize, double weightBand) {
+        if (maximumSize <= 0 || maximumSize > 1 << 24) {
+            throw new IllegalArgumentException("Maximum size must be between 1 and " + (1 << 24));
+        }
+        if (!(weightBand >= 0) || Double.isInfinite(weightBand)) {
+            throw new IllegalArgumentException("Weight band must be zero or a positive number of kg");
+        }
+        this.calculateShipping = calculateShipping;
+        this.weightBand = weightBand;
+        int sets = Integer.highestOneBit(Math.max(1, (maximumSize + WAYS - 1) / WAYS) * 2 - 1);
+        this.slots = new long[sets * WAYS * SLOT_LONGS];
+        this.setMask = sets - 1;
+    }
+
+    //Not cached: this path makes no lookups of its own so that bad input costs nothing
+    @Override
+    public applicationcode.usecase.calculateshipping.ResultCode tryCalculate(String countryCode, double weight, double[] cost) {
+        return calculateShipping.tryCalculate(countryCode, weight, cost);
+    }
+
+    @Override
+    public applicationcode.usecase.calculateshipping.ResultCode tryCalculate(applicationcode.usecase.calculateshipping.ShippingRequest request, double[] cost) {
+        return calculateShipping.tryCalculate(request, cost);
+    }
+
+    @Override
+    public double calculate(String countryCode, double weight) {
+        if (countryCode == null || !(weight > 0)) {
+            //Let the use case report the problem, and don't cache it
+            return calculateShipping.calculate(countryCode, weight);
+        }
+        return calculate(countryCode, weight, null);
+    }
+
+    //Already checked, so a miss on an exact weight is passed on as the request and the use case does not check it again
+    @Override
+    public double calculate(applicationcode.usecase.calculateshipping.ShippingRequest request) {
+        if (request == null) {
+            return calculateShipping.calculate(request);
+        }
+        return calculate(request.countryCode(), request.weight(), request);
+    }
+
+    private double calculate(String countryCode, double weight, applicationcode.usecase.calculateshipping.ShippingRequest request) {
+        double pricedWeight = pricedWeight(weight);
+        long country = pack(countryCode);
+        if (country == NOT_PACKABLE) {
+            return price(countryCode, weight, pricedWeight, request);
+        }
+        long weightKey = Double.doubleToRawLongBits(pricedWeight);
+        int set = (Long.hashCode(country * 0x9E3779B97F4A7C15L ^ weightKey) * 0x85EBCA6B >>> 8) & setMask;
+        int first = set * WAYS * SLOT_LONGS;
+        long currentGeneration = generation.get();
+
+        for (int way = 0; way < WAYS; way++) {
+            int slot = first + way * SLOT_LONGS;
+            long seq = (long) SLOTS.getAcquire(slots, slot + SEQ);
+            if ((seq & 1) != 0) {
+                continue;
+            }
+            long slotCountry = (long) SLOTS.getOpaque(slots, slot + COUNTRY);
+            long slotWeight = (long) SLOTS.getOpaque(slots, slot + WEIGHT);
+            long cost = (long) SLOTS.getOpaque(slots, slot + COST);
+            long slotGeneration = (long) SLOTS.getOpaque(slots, slot + GENERATION);
+            VarHandle.acquireFence();
+            if ((long) SLOTS.getOpaque(slots, slot + SEQ) == seq && slotCountry == country && slotWeight == weightKey
+                    && slotGeneration == currentGeneration) {
+                long now = clock.get();
+                if ((long) SLOTS.getOpaque(slots, slot + USED) != now) {
+                    SLOTS.setOpaque(slots, slot + USED, now);
+                }
+                hits.increment();
+                return Double.longBitsToDouble(cost);
+            }
+        }
+
+        misses.increment();
+        double calculated = price(countryCode, weight, pricedWeight, request);
+        insert(first, country, weightKey, calculated, currentGeneration);
+        return calculated;
+    }
+
+    //Overwrites the least recently used slot of the set, unless another thread is writing it
+    private void insert(int first, long country, long weightKey, double cost, long calculatedGeneration) {
+        int victim = first;
+        long oldest = Long.MAX_VALUE;
+        long currentGeneration = generation.get();
+        for (int way = 0; way < WAYS; way++) {
+            int slot = first + way * SLOT_LONGS;
+            long used = (long) SLOTS.getOpaque(slots, slot + USED);
+            boolean sameKey = (long) SLOTS.getOpaque(slots, slot + COUNTRY) == country
+                    && (long) SLOTS.getOpaque(slots, slot + WEIGHT) == weightKey;
+            if (sameKey || (long) SLOTS.getOpaque(slots, slot + GENERATION) != currentGeneration) {
+                //Another thread's copy of the same quote, or empty or invalidated, so nothing is evicted
+                victim = slot;
+                oldest = Long.MIN_VALUE;
+                break;
+            }
+            if (used < oldest) {
+                victim = slot;
+                oldest = used;
+            }
+        }
+
+        long seq = (long) SLOTS.getAcquire(slots, victim + SEQ);
+        if ((seq & 1) != 0 || !SLOTS.compareAndSet(slots, victim + SEQ, seq, seq + 1)) {
+            return;
+        }
+        if (oldest != Long.MIN_VALUE) {
+            evictions.increment();
+        }
+        SLOTS.setOpaque(slots, victim + COUNTRY, country);
+        SLOTS.setOpaque(slots, victim + WEIGHT, weightKey);
+        SLOTS.setOpaque(slots, victim + COST, Double.doubleToRawLongBits(cost));
+        //A quote calculated against rates that have since changed is written under its old generation, so is never served
+        SLOTS.setOpaque(slots, victim + GENERATION, calculatedGeneration);
+        SLOTS.setOpaque(slots, victim + USED, clock.incrementAndGet());
+        SLOTS.setRelease(slots, victim + SEQ, seq + 2);
+    }
+
+    private double price(String countryCode, double weight, double pricedWeight, applicationcode.usecase.calculateshipping.ShippingRequest request) {
+        if (request != null && pricedWeight == weight) {
+            return calculateShipping.calculate(request);
+        }
+        return calculateShipping.calculate(countryCode, pricedWeight);
+    }
+
+    private double pricedWeight(double weight) {
+        if (weightBand == 0) {
+            return weight;
+        }
+        double bandStart = Math.floor(weight / weightBand) * weightBand;
+        return bandStart > 0 ? bandStart : weight;
+    }
+
+    //Up to three 16-bit characters and the length, with no allocation
+    private static long pack(String countryCode) {
+        int length = countryCode.length();
+        if (length == 0 || length > 3) {
+            return NOT_PACKABLE;
+        }
+        long packed = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            packed |= (long) countryCode.charAt(i) << (16 * i);
+        }
+        return packed;
+    }
+
+    //Batches are already priced against a single rate card, so they go straight through
+    @Override
+    public void calculate(String[] countryCodes, double[] weights, double[] costs) {
+        calculateShipping.calculate(countryCodes, weights, costs);
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public double getWeightBand() {
+        return weightBand;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShippingQuoteCache{hits=%d, misses=%d, evictions=%d, hitRatio=%.3f}", getHits(), getMisses(), getEvictions(), getHitRatio());
+    }
+}
@@ -4,6 +4,9 @@ package infrastructure.driven;
 
 import applicationcode.usecase.calculateshipping.ShippingCost;
 import applicationcode.usecase.calculateshipping.Required;
+
+import java.util.Set;
+
 public class CalculateShippingDatabaseAdapter implements Required
 {
     private final ShippingCostDatabase database;
@@ -14,12 +17,27 @@ public class CalculateShippingDatabaseAdapter implements Required
 
     @Override
     public String getRegionCode(String countryCode) {
-        return database.countryRegionMap.get(countryCode);
+        return database.snapshot().countryRegionMap.get(countryCode);
     }
 
     @Override
     public ShippingCost getShippingCostForRegion(String regionCode) {
-        return new ShippingCost(database.minChargeMap.get(regionCode),database.costPerKgMap.get(regionCode));
+        ShippingCostDatabase.Snapshot snapshot = database.snapshot();
+        double[] bandWeights = snapshot.bandWeightMap.get(regionCode);
+        if (bandWeights == null) {
+            return new ShippingCost(snapshot.minChargeMap.get(regionCode),snapshot.costPerKgMap.get(regionCode));
+        }
+        return new ShippingCost(snapshot.minChargeMap.get(regionCode),snapshot.costPerKgMap.get(regionCode), bandWeights, snapshot.bandPriceMap.get(regionCode));
+    }
+
+    @Override
+    public Set<String> getCountryCodes() {
+        return Set.copyOf(database.snapshot().countryRegionMap.keySet());
+    }
+
+    @Override
+    public long getVersion() {
+        return database.snapshot().version;
     }
 
 }
@@ -0,0 +1,91 @@
+package infrastructure.driven;
+
+import applicationcode.usecase.calculateshipping.CountryCodes;
+import applicationcode.usecase.calculateshipping.Required;
+import applicationcode.usecase.calculateshipping.ShippingCost;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+//Looks up two letter ISO country codes in a 26 x 26 array instead of hashing the String
+//Requests are priced from the rate card's own packed index; this one makes compiling the card and
+//explaining unknown countries cheap too
+public class CountryCodeIndexDatabaseAdapter implements Required {
+
+    private final ShippingCostDatabase database;
+    private volatile Index index;
+
+    public CountryCodeIndexDatabaseAdapter(ShippingCostDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public String getRegionCode(String countryCode) {
+        Index current = index();
+        short slot = CountryCodes.pack(countryCode);
+        if (slot < 0) {
+            //Not a two letter upper case code, so it can only be in the map
+            return current.snapshot.countryRegionMap.get(countryCode);
+        }
+        int region = current.slots[slot];
+        return region == 0 ? null : current.regionCodes[region - 1];
+    }
+
+    @Override
+    public ShippingCost getShippingCostForRegion(String regionCode) {
+        Index current = index();
+        Integer region = current.regionIndexes.get(regionCode);
+        return region == null ? null : current.shippingCosts[region];
+    }
+
+    @Override
+    public Set<String> getCountryCodes() {
+        return Set.copyOf(index().snapshot.countryRegionMap.keySet());
+    }
+
+    @Override
+    public long getVersion() {
+        return database.snapshot().version;
+    }
+
+    private Index index() {
+        Index current = index;
+        ShippingCostDatabase.Snapshot snapshot = database.snapshot();
+        if (current == null || current.snapshot != snapshot) {
+            current = new Index(snapshot);
+            index = current;
+        }
+        return current;
+    }
+
+    private static final class Index {
+        private final ShippingCostDatabase.Snapshot snapshot;
+        //Index into regionCodes + 1 for each packed country code, 0 when the country is not known
+        private final short[] slots = new short[CountryCodes.SLOTS];
+        private final String[] regionCodes;
+        private final Map<String, Integer> regionIndexes = new HashMap<>();
+        private final ShippingCost[] shippingCosts;
+
+        private Index(ShippingCostDatabase.Snapshot snapshot) {
+            this.snapshot = snapshot;
+            this.regionCodes = snapshot.regionMap.keySet().toArray(new String[0]);
+            this.shippingCosts = new ShippingCost[regionCodes.length];
+            for (int region = 0; region < regionCodes.length; region++) {
+                String regionCode = regionCodes[region];
+                regionIndexes.put(regionCode, region);
+                double[] bandWeights = snapshot.bandWeightMap.get(regionCode);
+                shippingCosts[region] = bandWeights == null
+                        ? new ShippingCost(snapshot.minChargeMap.get(regionCode), snapshot.costPerKgMap.get(regionCode))
+                        : new ShippingCost(snapshot.minChargeMap.get(regionCode), snapshot.costPerKgMap.get(regionCode), bandWeights, snapshot.bandPriceMap.get(regionCode));
+            }
+            for (Map.Entry<String, String> country : snapshot.countryRegionMap.entrySet()) {
+                short slot = CountryCodes.pack(country.getKey());
+                Integer region = regionIndexes.get(country.getValue());
+                if (slot >= 0 && region != null) {
+                    slots[slot] = (short) (region + 1);
+                }
+            }
+        }
+    }
+}
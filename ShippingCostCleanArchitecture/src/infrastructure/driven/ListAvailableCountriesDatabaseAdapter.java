@@ -15,12 +15,17 @@ public class ListAvailableCountriesDatabaseAdapter implements Required
 
     @Override
     public Set<String> getRegionCodes() {
-        return Set.copyOf(database.countryRegionMap.values());
+        return Set.copyOf(database.snapshot().countryRegionMap.values());
     }
 
     @Override
     public Set<String> getCountryCodes() {
-        return Set.copyOf(database.countryRegionMap.keySet());
+        return Set.copyOf(database.snapshot().countryRegionMap.keySet());
+    }
+
+    @Override
+    public long getVersion() {
+        return database.snapshot().version;
     }
 
 }
@@ -0,0 +1,412 @@
+package infrastructure.driven;
+
+import applicationcode.usecase.calculateshipping.ShippingCost;
+import applicationcode.usecase.putregion.Country;
+import applicationcode.usecase.putregion.Region;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+//Keeps regions and countries in a binary file that is memory mapped, lookups read the mapped buffer directly
+//
+//File layout (big endian):
+//  header    MAGIC, FORMAT, version (long), region count, country count
+//  regions   code key, minCharge (double), costPerKg (double), name offset, band count, bands offset
+//  countries code key, region index, name offset - sorted by code so they can be binary searched
+//  bands     weight limit (double), price (double)
+//  names     length (short) then UTF-8 bytes
+//Codes are stored as fixed width keys of Latin-1 characters padded with zeros.
+//
+//Each version is written to its own file, <file>.<version>, rather than over the one that is mapped.
+//Windows will not replace or delete a file while it is mapped, and Java only unmaps a buffer when it is
+//garbage collected, so older versions are deleted once that succeeds, at a later put or the next open.
+public class MappedFileDatabaseAdapter implements
+        applicationcode.usecase.calculateshipping.Required,
+        applicationcode.usecase.listavailablecountries.Required,
+        applicationcode.usecase.putregion.Required {
+
+    private static final int MAGIC = 0x53434442;
+    private static final int FORMAT = 2;
+    private static final int KEY_BYTES = 12;
+    private static final int HEADER_BYTES = 24;
+    private static final int REGION_BYTES = KEY_BYTES + 8 + 8 + 4 + 4 + 4;
+    private static final int COUNTRY_BYTES = KEY_BYTES + 4 + 4;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private final Path file;
+    private volatile Mapping mapping;
+
+    private MappedFileDatabaseAdapter(Path file, Mapping mapping) {
+        this.file = file;
+        this.mapping = mapping;
+    }
+
+    //Maps the latest version of the file, or creates an empty one
+    public static MappedFileDatabaseAdapter open(Path file) {
+        try {
+            long version = latestVersion(file);
+            if (version < 0) {
+                version = 0;
+                writeVersion(file, version, new TreeMap<>(), new TreeMap<>());
+            }
+            Mapping mapping = map(versionFile(file, version));
+            deleteOlderVersions(file, version);
+            return new MappedFileDatabaseAdapter(file, mapping);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open shipping cost file: " + file, e);
+        }
+    }
+
+    @Override
+    public String getRegionCode(String countryCode) {
+        Mapping current = mapping;
+        int country = current.findCountry(countryCode);
+        return country < 0 ? null : current.regionCodes[current.regionIndex(country)];
+    }
+
+    @Override
+    public ShippingCost getShippingCostForRegion(String regionCode) {
+        Mapping current = mapping;
+        int region = current.findRegion(regionCode);
+        if (region < 0) {
+            return null;
+        }
+        return new ShippingCost(current.minCharge(region), current.costPerKg(region), current.bandWeights(region), current.bandPrices(region));
+    }
+
+    @Override
+    public Set<String> getRegionCodes() {
+        Mapping current = mapping;
+        Set<String> regionCodes = new HashSet<>();
+        for (int country = 0; country < current.countryCount; country++) {
+            regionCodes.add(current.regionCodes[current.regionIndex(country)]);
+        }
+        return Set.copyOf(regionCodes);
+    }
+
+    @Override
+    public Set<String> getCountryCodes() {
+        Mapping current = mapping;
+        Set<String> countryCodes = new HashSet<>();
+        for (int country = 0; country < current.countryCount; country++) {
+            countryCodes.add(current.key(current.countryOffset(country)));
+        }
+        return Set.copyOf(countryCodes);
+    }
+
+    @Override
+    public long getVersion() {
+        return mapping.version;
+    }
+
+    //Writes the next version beside the old one and swaps it in, readers keep using the old mapping until then
+    @Override
+    public synchronized void put(Set<Region> regions) {
+        Mapping current = mapping;
+        Map<String, RegionRow> regionRows = new TreeMap<>();
+        Map<String, CountryRow> countryRows = new TreeMap<>();
+        for (int region = 0; region < current.regionCount; region++) {
+            regionRows.put(current.regionCodes[region], new RegionRow(current.name(current.regionOffset(region) + KEY_BYTES + 16),
+                    current.minCharge(region), current.costPerKg(region), current.bandWeights(region), current.bandPrices(region)));
+        }
+        for (int country = 0; country < current.countryCount; country++) {
+            int offset = current.countryOffset(country);
+            countryRows.put(current.key(offset), new CountryRow(current.regionCodes[current.regionIndex(country)], current.name(offset + KEY_BYTES + 4)));
+        }
+
+        for (Region region : regions) {
+            checkKey(region.getCode());
+            regionRows.put(region.getCode(), new RegionRow(region.getName(), region.getMinCharge(), region.getCostPerKg(),
+                    region.getBandWeights(), region.getBandPrices()));
+            for (Country country : region.getCountries()) {
+                checkKey(country.getCode());
+                countryRows.put(country.getCode(), new CountryRow(region.getCode(), country.getName()));
+            }
+        }
+
+        try {
+            long version = current.version + 1;
+            writeVersion(file, version, regionRows, countryRows);
+            mapping = map(versionFile(file, version));
+            deleteOlderVersions(file, version);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write shipping cost file: " + file, e);
+        }
+    }
+
+    private static void checkKey(String code) {
+        if (code.length() > KEY_BYTES) {
+            throw new IllegalArgumentException("Code is longer than " + KEY_BYTES + " characters: " + code);
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) == 0 || code.charAt(i) > 0xFF) {
+                throw new IllegalArgumentException("Code must only contain Latin-1 characters: " + code);
+            }
+        }
+    }
+
+    private static Path versionFile(Path file, long version) {
+        return file.resolveSibling(file.getFileName() + "." + version);
+    }
+
+    //Highest version written beside the file, or -1 if there is none yet
+    private static long latestVersion(Path file) throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(directoryOf(file), file.getFileName() + ".*")) {
+            for (Path sibling : siblings) {
+                latest = Math.max(latest, versionOf(file, sibling));
+            }
+        }
+        return latest;
+    }
+
+    private static void deleteOlderVersions(Path file, long version) throws IOException {
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(directoryOf(file), file.getFileName() + ".*")) {
+            for (Path sibling : siblings) {
+                long siblingVersion = versionOf(file, sibling);
+                if (siblingVersion >= 0 && siblingVersion < version) {
+                    try {
+                        Files.deleteIfExists(sibling);
+                    } catch (IOException e) {
+                        //Still mapped by a reader on Windows, tried again at the next put or open
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path directoryOf(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        return directory == null ? Path.of("") : directory;
+    }
+
+    private static long versionOf(Path file, Path sibling) {
+        String suffix = sibling.getFileName().toString().substring(file.getFileName().toString().length() + 1);
+        for (int i = 0; i < suffix.length(); i++) {
+            if (suffix.charAt(i) < '0' || suffix.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return suffix.isEmpty() || suffix.length() > 18 ? -1 : Long.parseLong(suffix);
+    }
+
+    //Written under a temporary name first, so a crash never leaves a torn version to be opened
+    private static void writeVersion(Path file, long version, Map<String, RegionRow> regionRows, Map<String, CountryRow> countryRows) throws IOException {
+        Path next = file.resolveSibling(file.getFileName() + ".next");
+        write(next, version, regionRows, countryRows);
+        Files.move(next, versionFile(file, version), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Mapping map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("Not a shipping cost file: " + file);
+            }
+            return new Mapping(buffer);
+        }
+    }
+
+    private static void write(Path file, long version, Map<String, RegionRow> regionRows, Map<String, CountryRow> countryRows) throws IOException {
+        //Region index is the position of the region in the (sorted) region table
+        Map<String, Integer> regionIndexes = new LinkedHashMap<>();
+        for (String regionCode : regionRows.keySet()) {
+            regionIndexes.put(regionCode, regionIndexes.size());
+        }
+
+        int bandCount = 0;
+        for (RegionRow region : regionRows.values()) {
+            bandCount += region.bandWeights().length;
+        }
+        int bandsOffset = HEADER_BYTES + regionRows.size() * REGION_BYTES + countryRows.size() * COUNTRY_BYTES;
+        int namesOffset = bandsOffset + bandCount * 16;
+        ByteBuffer names = ByteBuffer.allocate(64 * 1024);
+        ByteBuffer table = ByteBuffer.allocate(namesOffset);
+
+        table.putInt(MAGIC).putInt(FORMAT).putLong(version).putInt(regionRows.size()).putInt(countryRows.size());
+        for (Map.Entry<String, RegionRow> region : regionRows.entrySet()) {
+            putKey(table, region.getKey());
+            table.putDouble(region.getValue().minCharge()).putDouble(region.getValue().costPerKg());
+            table.putInt(namesOffset + names.position());
+            names = putName(names, region.getValue().name());
+            table.putInt(region.getValue().bandWeights().length).putInt(bandsOffset);
+            bandsOffset += region.getValue().bandWeights().length * 16;
+        }
+        for (Map.Entry<String, CountryRow> country : countryRows.entrySet()) {
+            putKey(table, country.getKey());
+            table.putInt(regionIndexes.get(country.getValue().regionCode()));
+            table.putInt(namesOffset + names.position());
+            names = putName(names, country.getValue().name());
+        }
+        for (RegionRow region : regionRows.values()) {
+            for (int band = 0; band < region.bandWeights().length; band++) {
+                table.putDouble(region.bandWeights()[band]).putDouble(region.bandPrices()[band]);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            table.flip();
+            names.flip();
+            while (table.hasRemaining() || names.hasRemaining()) {
+                channel.write(new ByteBuffer[]{table, names});
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void putKey(ByteBuffer buffer, String code) {
+        for (int i = 0; i < KEY_BYTES; i++) {
+            buffer.put(i < code.length() ? (byte) code.charAt(i) : 0);
+        }
+    }
+
+    private static ByteBuffer putName(ByteBuffer names, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_BYTES + " bytes: " + name.substring(0, 32) + "...");
+        }
+        if (names.remaining() < 2 + bytes.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(names.capacity() * 2, names.position() + 2 + bytes.length));
+            names.flip();
+            names = bigger.put(names);
+        }
+        return names.putShort((short) bytes.length).put(bytes);
+    }
+
+    private record RegionRow(String name, double minCharge, double costPerKg, double[] bandWeights, double[] bandPrices) {
+    }
+
+    private record CountryRow(String regionCode, String name) {
+    }
+
+    private static final class Mapping {
+        private final ByteBuffer buffer;
+        private final long version;
+        private final int regionCount;
+        private final int countryCount;
+        private final int countriesOffset;
+        //The handful of region codes are decoded once so lookups can return them without allocating
+        private final String[] regionCodes;
+
+        private Mapping(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.version = buffer.getLong(8);
+            this.regionCount = buffer.getInt(16);
+            this.countryCount = buffer.getInt(20);
+            this.countriesOffset = HEADER_BYTES + regionCount * REGION_BYTES;
+            this.regionCodes = new String[regionCount];
+            for (int region = 0; region < regionCount; region++) {
+                regionCodes[region] = key(regionOffset(region));
+            }
+        }
+
+        int regionOffset(int region) {
+            return HEADER_BYTES + region * REGION_BYTES;
+        }
+
+        int countryOffset(int country) {
+            return countriesOffset + country * COUNTRY_BYTES;
+        }
+
+        double minCharge(int region) {
+            return buffer.getDouble(regionOffset(region) + KEY_BYTES);
+        }
+
+        double costPerKg(int region) {
+            return buffer.getDouble(regionOffset(region) + KEY_BYTES + 8);
+        }
+
+        double[] bandWeights(int region) {
+            return bands(region, 0);
+        }
+
+        double[] bandPrices(int region) {
+            return bands(region, 8);
+        }
+
+        private double[] bands(int region, int field) {
+            int offset = regionOffset(region) + KEY_BYTES + 20;
+            double[] values = new double[buffer.getInt(offset)];
+            int bandsOffset = buffer.getInt(offset + 4);
+            for (int band = 0; band < values.length; band++) {
+                values[band] = buffer.getDouble(bandsOffset + band * 16 + field);
+            }
+            return values;
+        }
+
+        int regionIndex(int country) {
+            return buffer.getInt(countryOffset(country) + KEY_BYTES);
+        }
+
+        int findRegion(String regionCode) {
+            for (int region = 0; region < regionCount; region++) {
+                if (compareKey(regionOffset(region), regionCode) == 0) {
+                    return region;
+                }
+            }
+            return -1;
+        }
+
+        int findCountry(String countryCode) {
+            int low = 0;
+            int high = countryCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compareKey(countryOffset(middle), countryCode);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        //Compares the stored key with a code character by character, so no String is built
+        private int compareKey(int offset, String code) {
+            if (code.length() > KEY_BYTES) {
+                return -1;
+            }
+            for (int i = 0; i < KEY_BYTES; i++) {
+                int stored = buffer.get(offset + i) & 0xFF;
+                int wanted = i < code.length() ? code.charAt(i) : 0;
+                if (stored != wanted) {
+                    return stored - wanted;
+                }
+            }
+            return 0;
+        }
+
+        String key(int offset) {
+            int length = 0;
+            while (length < KEY_BYTES && buffer.get(offset + length) != 0) {
+                length++;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        String name(int nameOffsetPosition) {
+            int offset = buffer.getInt(nameOffsetPosition);
+            byte[] bytes = new byte[buffer.getShort(offset) & 0xFFFF];
+            buffer.get(offset + 2, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
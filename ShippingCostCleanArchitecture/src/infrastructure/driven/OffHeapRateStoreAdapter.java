@@ -0,0 +1,251 @@
+package infrastructure.driven;
+
+import applicationcode.usecase.calculateshipping.ShippingCost;
+import applicationcode.usecase.putregion.Country;
+import applicationcode.usecase.putregion.Region;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//Keeps millions of postcode district or country keys off the heap, so heap size and GC pauses do not grow with the table
+//
+//Keys of up to 8 ASCII characters are packed into a long and stored in an open addressing table (linear probing)
+//in a MemorySegment. Each 16 byte slot is: key (long, 0 when empty), region number (int), unused (int).
+//Regions are few, so their codes and costs stay on the heap.
+//Like ShippingCostDatabase, every change builds a new table and publishes it in one volatile write, so readers
+//never lock and never see a half-written slot. Old tables are freed by their automatic arena once no reader holds them.
+//That means every batch of keys copies the whole table, so keys should be put in large batches, not one at a time.
+public class OffHeapRateStoreAdapter implements
+        applicationcode.usecase.calculateshipping.Required,
+        applicationcode.usecase.listavailablecountries.Required,
+        applicationcode.usecase.putregion.Required {
+    private static final int KEY_CHARS = 8;
+    private static final long SLOT_BYTES = 16;
+    private static final long REGION_OFFSET = 8;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(0, new String[0], Map.of(), Map.of(), allocate(MIN_CAPACITY), MIN_CAPACITY, 0);
+
+    //Adds or replaces the cost of a region, keys can only refer to regions that have been put
+    public synchronized void putRegion(String regionCode, ShippingCost shippingCost) {
+        if (regionCode == null || regionCode.isBlank()) {
+            throw new IllegalArgumentException("Region code must not be null or blank");
+        }
+        if (shippingCost == null) {
+            throw new IllegalArgumentException("Shipping cost must not be null");
+        }
+        table = withRegions(table, Map.of(regionCode, shippingCost));
+    }
+
+    //Maps each key to a region; the whole batch becomes visible to readers together
+    public synchronized void put(Map<String, String> keyRegions) {
+        table = withKeys(table, keyRegions);
+    }
+
+    //The regions and all their countries become visible to readers together
+    @Override
+    public synchronized void put(Set<Region> regions) {
+        Map<String, ShippingCost> costs = new HashMap<>();
+        Map<String, String> keyRegions = new HashMap<>();
+        for (Region region : regions) {
+            costs.put(region.getCode(), new ShippingCost(region.getMinCharge(), region.getCostPerKg(), region.getBandWeights(), region.getBandPrices()));
+            for (Country country : region.getCountries()) {
+                keyRegions.put(country.getCode(), region.getCode());
+            }
+        }
+        table = withKeys(withRegions(table, costs), keyRegions);
+    }
+
+    private static Table withRegions(Table current, Map<String, ShippingCost> regionCosts) {
+        Map<String, ShippingCost> costs = new HashMap<>(current.costs);
+        Map<String, Integer> numbers = new HashMap<>(current.numbers);
+        String[] regionCodes = current.regionCodes;
+        for (Map.Entry<String, ShippingCost> region : regionCosts.entrySet()) {
+            String regionCode = region.getKey();
+            if (!numbers.containsKey(regionCode)) {
+                numbers.put(regionCode, regionCodes.length);
+                regionCodes = Arrays.copyOf(regionCodes, regionCodes.length + 1);
+                regionCodes[regionCodes.length - 1] = regionCode;
+            }
+            costs.put(regionCode, region.getValue());
+        }
+        //The slots never change here, so the new table shares them
+        return new Table(current.version + 1, regionCodes, Map.copyOf(numbers), Map.copyOf(costs), current.slots, current.capacity, current.size);
+    }
+
+    private static Table withKeys(Table current, Map<String, String> keyRegions) {
+        long[] keys = new long[keyRegions.size()];
+        int[] regions = new int[keyRegions.size()];
+        int count = 0;
+        for (Map.Entry<String, String> entry : keyRegions.entrySet()) {
+            long key = pack(entry.getKey());
+            if (key == 0) {
+                throw new IllegalArgumentException("Key must be 1 to " + KEY_CHARS + " ASCII characters: " + entry.getKey());
+            }
+            Integer region = current.numbers.get(entry.getValue());
+            if (region == null) {
+                throw new IllegalArgumentException("Unknown region: " + entry.getValue());
+            }
+            keys[count] = key;
+            regions[count] = region;
+            count++;
+        }
+
+        //Keep the table at most half full so probe sequences stay short
+        int capacity = current.capacity;
+        while ((long) (current.size + count) * 2 > capacity) {
+            capacity *= 2;
+        }
+        MemorySegment slots = allocate(capacity);
+        int size = 0;
+        if (capacity == current.capacity) {
+            MemorySegment.copy(current.slots, 0, slots, 0, capacity * SLOT_BYTES);
+            size = current.size;
+        } else {
+            for (long offset = 0; offset < current.capacity * SLOT_BYTES; offset += SLOT_BYTES) {
+                long key = current.slots.get(ValueLayout.JAVA_LONG, offset);
+                if (key != 0 && insert(slots, capacity, key, current.slots.get(ValueLayout.JAVA_INT, offset + REGION_OFFSET))) {
+                    size++;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (insert(slots, capacity, keys[i], regions[i])) {
+                size++;
+            }
+        }
+        return new Table(current.version + 1, current.regionCodes, current.numbers, current.costs, slots, capacity, size);
+    }
+
+    @Override
+    public String getRegionCode(String countryCode) {
+        Table current = table;
+        long key = pack(countryCode);
+        if (key == 0) {
+            return null;
+        }
+        long offset = find(current.slots, current.capacity, key);
+        if (current.slots.get(ValueLayout.JAVA_LONG, offset) == 0) {
+            return null;
+        }
+        return current.regionCodes[current.slots.get(ValueLayout.JAVA_INT, offset + REGION_OFFSET)];
+    }
+
+    @Override
+    public ShippingCost getShippingCostForRegion(String regionCode) {
+        return table.costs.get(regionCode);
+    }
+
+    @Override
+    public Set<String> getRegionCodes() {
+        return table.numbers.keySet();
+    }
+
+    //Builds every key as a String, so only for small tables and tools
+    @Override
+    public Set<String> getCountryCodes() {
+        Table current = table;
+        Set<String> codes = new HashSet<>(current.size * 2);
+        for (long offset = 0; offset < current.capacity * SLOT_BYTES; offset += SLOT_BYTES) {
+            long key = current.slots.get(ValueLayout.JAVA_LONG, offset);
+            if (key != 0) {
+                codes.add(unpack(key));
+            }
+        }
+        return Set.copyOf(codes);
+    }
+
+    //Copying millions of keys into a heap rate card would defeat the point of keeping them off the heap
+    @Override
+    public boolean isRateCardWorthCompiling() {
+        return false;
+    }
+
+    public int getKeyCount() {
+        return table.size;
+    }
+
+    @Override
+    public long getVersion() {
+        return table.version;
+    }
+
+    //Bytes of off-heap memory held by the live table
+    public long getOffHeapBytes() {
+        return table.slots.byteSize();
+    }
+
+    //Packs up to 8 ASCII characters into a long, first character in the top byte, or 0 when the key does not fit
+    static long pack(String key) {
+        if (key == null || key.isEmpty() || key.length() > KEY_CHARS) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < KEY_CHARS; i++) {
+            int c = i < key.length() ? key.charAt(i) : 0;
+            if (i < key.length() && (c == 0 || c > 0x7F)) {
+                return 0;
+            }
+            packed = (packed << 8) | c;
+        }
+        return packed;
+    }
+
+    static String unpack(long key) {
+        StringBuilder code = new StringBuilder(KEY_CHARS);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            char c = (char) ((key >>> shift) & 0xFF);
+            if (c == 0) {
+                break;
+            }
+            code.append(c);
+        }
+        return code.toString();
+    }
+
+    //Returns true when the key was not already in the table
+    private static boolean insert(MemorySegment slots, int capacity, long key, int region) {
+        long offset = find(slots, capacity, key);
+        boolean added = slots.get(ValueLayout.JAVA_LONG, offset) == 0;
+        slots.set(ValueLayout.JAVA_LONG, offset, key);
+        slots.set(ValueLayout.JAVA_INT, offset + REGION_OFFSET, region);
+        return added;
+    }
+
+    //Offset of the slot holding the key, or of the empty slot where it belongs
+    private static long find(MemorySegment slots, int capacity, long key) {
+        int mask = capacity - 1;
+        int index = (int) mix(key) & mask;
+        while (true) {
+            long offset = index * SLOT_BYTES;
+            long stored = slots.get(ValueLayout.JAVA_LONG, offset);
+            if (stored == key || stored == 0) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    //Spreads packed keys that differ only in their last characters across the whole table
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static MemorySegment allocate(int capacity) {
+        //Allocated memory starts zeroed, which marks every slot empty
+        return Arena.ofAuto().allocate(capacity * SLOT_BYTES, SLOT_BYTES);
+    }
+
+    private record Table(long version, String[] regionCodes, Map<String, Integer> numbers, Map<String, ShippingCost> costs,
+                         MemorySegment slots, int capacity, int size) {
+    }
+}
@@ -11,29 +11,75 @@ public class PutRegionDatabaseAdapter implements Required
 {
 
     private final ShippingCostDatabase database;
+    //Null when the database has nobody to share its values with
+    private final SharedRateTable shared;
 
     public PutRegionDatabaseAdapter(ShippingCostDatabase database) {
+        this(database, null);
+    }
+
+    //Tenants that share a table store the values they have in common only once
+    public PutRegionDatabaseAdapter(ShippingCostDatabase database, SharedRateTable shared) {
         this.database = database;
+        this.shared = shared;
     }
 
+    //All the regions become visible to readers together
     @Override
     public void put(Set<Region> regions) {
+        database.update(snapshot -> {
+            for (Region region : regions) {
+                put(snapshot, region);
+            }
+        });
+    }
+
+    //Throws away every region and country that is not in regions, in the same single step
+    public void replace(Set<Region> regions) {
+        int countries = 0;
         for (Region region : regions) {
-            put(region);
+            countries += region.getCountries().size();
         }
+        database.replace(regions.size(), countries, snapshot -> {
+            for (Region region : regions) {
+                put(snapshot, region);
+            }
+        });
     }
-    private void put(Region region) {
-        database.regionMap.put(region.getCode(), region.getName());
-        database.costPerKgMap.put(region.getCode(), region.getCostPerKg());
-        database.minChargeMap.put(region.getCode(), region.getMinCharge());
+
+    private void put(ShippingCostDatabase.Snapshot snapshot, Region region) {
+        String code = share(region.getCode());
+        snapshot.regionMap.put(code, share(region.getName()));
+        snapshot.costPerKgMap.put(code, share(region.getCostPerKg()));
+        snapshot.minChargeMap.put(code, share(region.getMinCharge()));
+        if (region.getBandWeights().length > 0) {
+            snapshot.bandWeightMap.put(code, share(region.getBandWeights()));
+            snapshot.bandPriceMap.put(code, share(region.getBandPrices()));
+        } else {
+            snapshot.bandWeightMap.remove(code);
+            snapshot.bandPriceMap.remove(code);
+        }
 
         for (Country country : region.getCountries()) {
-            put(region, country);
+            put(snapshot, region, country);
         }
     }
 
-    private void put(Region region, Country country) {
-        database.countryRegionMap.put(country.getCode(), region.getCode());
-        database.countryMap.put(country.getCode(), country.getName());
+    private void put(ShippingCostDatabase.Snapshot snapshot, Region region, Country country) {
+        String code = share(country.getCode());
+        snapshot.countryRegionMap.put(code, share(region.getCode()));
+        snapshot.countryMap.put(code, share(country.getName()));
+    }
+
+    private String share(String value) {
+        return shared == null ? value : shared.share(value);
+    }
+
+    private Double share(double value) {
+        return shared == null ? value : shared.share(value);
+    }
+
+    private double[] share(double[] value) {
+        return shared == null ? value : shared.share(value);
     }
 }
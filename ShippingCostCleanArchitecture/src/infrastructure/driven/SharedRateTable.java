@@ -0,0 +1,86 @@
+package infrastructure.driven;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+//Holds one copy of the codes, names, charges and bands that many tenants have in common
+//Tenant databases keep their own maps, but the values in them point at these shared instances
+//Only written to when regions are put, so nothing on the request path touches it
+//Values are only weakly held, so once no tenant's snapshot refers to a value any more it is forgotten
+public class SharedRateTable {
+    private final Interner<String, String> strings = new Interner<>();
+    private final Interner<Double, Double> charges = new Interner<>();
+    private final Interner<Bands, double[]> bands = new Interner<>();
+
+    //The keys are copies, so they do not keep the shared instances alive
+    String share(String value) {
+        return strings.share(new String(value), value);
+    }
+
+    Double share(double value) {
+        return charges.share(Double.valueOf(value), Double.valueOf(value));
+    }
+
+    //The arrays handed out must never be written to
+    double[] share(double[] value) {
+        return bands.share(new Bands(value.clone()), value);
+    }
+
+    public int size() {
+        return strings.size() + charges.size() + bands.size();
+    }
+
+    private record Bands(double[] values) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Bands other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    private static final class Interner<K, V> {
+        private final Map<K, Entry<K, V>> entries = new HashMap<>();
+        private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+        synchronized V share(K key, V value) {
+            expunge();
+            Entry<K, V> entry = entries.get(key);
+            V shared = entry == null ? null : entry.get();
+            if (shared != null) {
+                return shared;
+            }
+            entries.put(key, new Entry<>(key, value, collected));
+            return value;
+        }
+
+        synchronized int size() {
+            expunge();
+            return entries.size();
+        }
+
+        //Drops the entries whose value has been garbage collected
+        private void expunge() {
+            Object reference;
+            while ((reference = collected.poll()) != null) {
+                Entry<?, ?> entry = (Entry<?, ?>) reference;
+                entries.remove(entry.key, entry);
+            }
+        }
+    }
+
+    private static final class Entry<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private Entry(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package infrastructure.driven;
+
+import applicationcode.usecase.repricing.Required;
+import applicationcode.usecase.repricing.Tariff;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+//Reads last month's shipments for the repricing simulation, and the current rates from the database
+//Each line of the history is: countryCode, weight, followed by any other columns, which are ignored.
+//Blank lines, # comments and a countryCode header are skipped.
+//The file is cut into partitions of about PARTITION_BYTES that are mapped and parsed independently,
+//a partition owning every line that starts inside it, so tens of millions of rows are read on all cores at once.
+public class ShipmentHistoryFileAdapter implements Required {
+    private static final long PARTITION_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_LINE_BYTES = 4096;
+
+    private final Path historyFile;
+    private final ShippingCostDatabase database;
+    private final long fileSize;
+
+    public ShipmentHistoryFileAdapter(Path historyFile, ShippingCostDatabase database) {
+        this.historyFile = historyFile;
+        this.database = database;
+        try (FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ)) {
+            this.fileSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read shipment history " + historyFile, e);
+        }
+    }
+
+    @Override
+    public Tariff getCurrentTariff() {
+        ShippingCostDatabase.Snapshot snapshot = database.snapshot();
+        Tariff tariff = new Tariff();
+        for (String regionCode : snapshot.regionMap.keySet()) {
+            double[] bandWeights = snapshot.bandWeightMap.get(regionCode);
+            if (bandWeights == null) {
+                tariff.addRegion(regionCode, snapshot.minChargeMap.get(regionCode), snapshot.costPerKgMap.get(regionCode));
+            } else {
+                tariff.addRegion(regionCode, snapshot.minChargeMap.get(regionCode), snapshot.costPerKgMap.get(regionCode), bandWeights, snapshot.bandPriceMap.get(regionCode));
+            }
+        }
+        for (Map.Entry<String, String> country : snapshot.countryRegionMap.entrySet()) {
+            tariff.addCountry(country.getKey(), country.getValue());
+        }
+        return tariff;
+    }
+
+    @Override
+    public int getShipmentPartitions() {
+        return (int) Math.max(1, (fileSize + PARTITION_BYTES - 1) / PARTITION_BYTES);
+    }
+
+    @Override
+    public void readShipments(int partition, ShipmentConsumer consumer) {
+        long start = partition * PARTITION_BYTES;
+        long end = Math.min(fileSize, start + PARTITION_BYTES);
+        if (start >= end) {
+            return;
+        }
+        //Map from the byte before the partition, to tell whether it starts on a new line,
+        //and a little past the end to finish the last line, which may run into the next partition
+        long mapStart = start == 0 ? 0 : start - 1;
+        long mapEnd = Math.min(fileSize, end + MAX_LINE_BYTES);
+        try (FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            read(bytes, (int) (end - mapStart), start != 0, mapEnd == fileSize, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read shipment history " + historyFile, e);
+        }
+    }
+
+    private static void read(MappedByteBuffer bytes, int owned, boolean skipFirstLine, boolean endOfFile, ShipmentConsumer consumer) {
+        //Country codes repeat millions of times, so each distinct one becomes a String only once per partition
+        CountryCodes countryCodes = new CountryCodes();
+        int limit = bytes.limit();
+        int position = 0;
+        if (skipFirstLine) {
+            //The line running into this partition belongs to the previous one
+            while (position < limit && bytes.get(position++) != '\n') {
+            }
+        }
+        while (position < owned) {
+            int lineEnd = position;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && !endOfFile) {
+                throw new IllegalArgumentException("Shipment history line longer than " + MAX_LINE_BYTES + " bytes");
+            }
+            parse(bytes, position, lineEnd, countryCodes, consumer);
+            position = lineEnd + 1;
+        }
+    }
+
+    private static void parse(MappedByteBuffer bytes, int from, int to, CountryCodes countryCodes, ShipmentConsumer consumer) {
+        if (to > from && bytes.get(to - 1) == '\r') {
+            to--;
+        }
+        if (to == from || bytes.get(from) == '#') {
+            return;
+        }
+        int comma = from;
+        while (comma < to && bytes.get(comma) != ',') {
+            comma++;
+        }
+        if (comma == to || comma - from > 3) {
+            //Not a shipment, e.g. the header, so let the slow path decide
+            byte[] line = new byte[to - from];
+            bytes.get(from, line);
+            parse(new String(line, StandardCharsets.UTF_8), consumer);
+            return;
+        }
+        int packed = 0;
+        for (int i = from; i < comma; i++) {
+            packed = (packed << 8) | (bytes.get(i) & 0xFF);
+        }
+        String countryCode = countryCodes.get(packed);
+        if (countryCode == null) {
+            byte[] code = new byte[comma - from];
+            bytes.get(from, code);
+            countryCode = new String(code, StandardCharsets.US_ASCII).trim();
+            countryCodes.put(packed, countryCode);
+        }
+        int weightEnd = comma + 1;
+        while (weightEnd < to && bytes.get(weightEnd) != ',') {
+            weightEnd++;
+        }
+        consumer.accept(countryCode, parseWeight(bytes, comma + 1, weightEnd));
+    }
+
+    private static void parse(String line, ShipmentConsumer consumer) {
+        String[] fields = line.split(",", 3);
+        if (line.isBlank() || line.startsWith("#") || fields.length < 2 || fields[0].trim().equalsIgnoreCase("countryCode")) {
+            return;
+        }
+        double weight;
+        try {
+            weight = Double.parseDouble(fields[1].trim());
+        } catch (NumberFormatException e) {
+            weight = Double.NaN;
+        }
+        consumer.accept(fields[0].trim(), weight);
+    }
+
+    //Plain decimals such as 12 or 0.75 without creating a String, anything else through Double.parseDouble
+    //Returns NaN when the weight is not a number, which the simulation counts as unpriced
+    private static double parseWeight(MappedByteBuffer bytes, int from, int to) {
+        while (from < to && bytes.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && bytes.get(to - 1) == ' ') {
+            to--;
+        }
+        long digits = 0;
+        int scale = -1;
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b >= '0' && b <= '9' && digits < 100_000_000_000_000L) {
+                digits = digits * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                byte[] text = new byte[to - from];
+                bytes.get(from, text);
+                try {
+                    return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        if (to == from) {
+            return Double.NaN;
+        }
+        return scale <= 0 ? digits : digits / Math.pow(10, scale);
+    }
+
+    //Open addressing table (linear probing) from a country code packed into an int to its String,
+    //so looking up the code on every row does not box the key
+    private static final class CountryCodes {
+        private int[] keys = new int[64];
+        private String[] codes = new String[64];
+        private int size;
+
+        String get(int packed) {
+            int mask = keys.length - 1;
+            for (int slot = slot(packed, mask); codes[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == packed) {
+                    return codes[slot];
+                }
+            }
+            return null;
+        }
+
+        //Only called for codes that are not in the table yet
+        void put(int packed, String code) {
+            //Keep the table at most half full so probe sequences stay short
+            if ((size + 1) * 2 > keys.length) {
+                int[] oldKeys = keys;
+                String[] oldCodes = codes;
+                keys = new int[oldKeys.length * 2];
+                codes = new String[oldCodes.length * 2];
+                for (int slot = 0; slot < oldKeys.length; slot++) {
+                    if (oldCodes[slot] != null) {
+                        insert(oldKeys[slot], oldCodes[slot]);
+                    }
+                }
+            }
+            insert(packed, code);
+            size++;
+        }
+
+        private void insert(int packed, String code) {
+            int mask = keys.length - 1;
+            int slot = slot(packed, mask);
+            while (codes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = packed;
+            codes[slot] = code;
+        }
+
+        private static int slot(int packed, int mask) {
+            int hash = packed * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
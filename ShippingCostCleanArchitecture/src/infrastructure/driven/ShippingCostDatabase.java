@@ -1,13 +1,79 @@
 package infrastructure.driven;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
+//Copy-on-write store: readers take the current snapshot without locking, writers publish a whole new one
 public class ShippingCostDatabase {
 
-    final Map<String, Double> costPerKgMap = new HashMap<>();
-    final Map<String, Double> minChargeMap = new HashMap<>();
-    final Map<String, String> countryRegionMap = new HashMap<>();
-    final Map<String, String> regionMap = new HashMap<>();
-    final Map<String, String> countryMap = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    synchronized void update(Consumer<Snapshot> changes) {
+        Snapshot current = snapshot;
+        Snapshot draft = new Snapshot(current.version + 1,
+                new HashMap<>(current.costPerKgMap),
+                new HashMap<>(current.minChargeMap),
+                new HashMap<>(current.countryRegionMap),
+                new HashMap<>(current.regionMap),
+                new HashMap<>(current.countryMap),
+                new HashMap<>(current.bandWeightMap),
+                new HashMap<>(current.bandPriceMap));
+        publish(draft, changes);
+    }
+
+    //Starts from empty maps rather than copies, sized so the new contents fit without rehashing
+    synchronized void replace(int regions, int countries, Consumer<Snapshot> contents) {
+        Snapshot draft = new Snapshot(snapshot.version + 1,
+                HashMap.newHashMap(regions),
+                HashMap.newHashMap(regions),
+                HashMap.newHashMap(countries),
+                HashMap.newHashMap(regions),
+                HashMap.newHashMap(countries),
+                new HashMap<>(),
+                new HashMap<>());
+        publish(draft, contents);
+    }
+
+    private void publish(Snapshot draft, Consumer<Snapshot> changes) {
+        changes.accept(draft);
+        //The draft maps are never touched again, so they are published as read-only views rather than copied
+        snapshot = new Snapshot(draft.version,
+                Collections.unmodifiableMap(draft.costPerKgMap),
+                Collections.unmodifiableMap(draft.minChargeMap),
+                Collections.unmodifiableMap(draft.countryRegionMap),
+                Collections.unmodifiableMap(draft.regionMap),
+                Collections.unmodifiableMap(draft.countryMap),
+                Collections.unmodifiableMap(draft.bandWeightMap),
+                Collections.unmodifiableMap(draft.bandPriceMap));
+    }
+
+    static final class Snapshot {
+        final long version;
+        final Map<String, Double> costPerKgMap;
+        final Map<String, Double> minChargeMap;
+        final Map<String, String> countryRegionMap;
+        final Map<String, String> regionMap;
+        final Map<String, String> countryMap;
+        final Map<String, double[]> bandWeightMap;
+        final Map<String, double[]> bandPriceMap;
+
+        private Snapshot(long version, Map<String, Double> costPerKgMap, Map<String, Double> minChargeMap,
+                         Map<String, String> countryRegionMap, Map<String, String> regionMap, Map<String, String> countryMap,
+                         Map<String, double[]> bandWeightMap, Map<String, double[]> bandPriceMap) {
+            this.version = version;
+            this.costPerKgMap = costPerKgMap;
+            this.minChargeMap = minChargeMap;
+            this.countryRegionMap = countryRegionMap;
+            this.regionMap = regionMap;
+            this.countryMap = countryMap;
+            this.bandWeightMap = bandWeightMap;
+            this.bandPriceMap = bandPriceMap;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package infrastructure.driving;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Outcome of a rate file import: how many rows went in and every row that did not
+public class ImportReport {
+    private final List<String> problems = new ArrayList<>();
+    private long rowsImported;
+    private long duplicates;
+
+    void imported() {
+        rowsImported++;
+    }
+
+    void duplicate(long lineNumber, String countryCode) {
+        duplicates++;
+        problems.add(String.format("Line %d: country %s already imported", lineNumber, countryCode));
+    }
+
+    void rejected(long lineNumber, String reason) {
+        problems.add(String.format("Line %d: %s", lineNumber, reason));
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public List<String> getProblems() {
+        return List.copyOf(problems);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportReport{rowsImported=%d, duplicates=%d, problems=%d}", rowsImported, duplicates, problems.size());
+    }
+}
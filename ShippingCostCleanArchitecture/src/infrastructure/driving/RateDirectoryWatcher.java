@@ -0,0 +1,143 @@
+package infrastructure.driving;
+
+import applicationcode.usecase.putregion.Region;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+//Reloads the shipping rates whenever a rate file is created or changed in a directory
+//Each file holds the complete set of rates, in the format read by RateFileImportAdapter.
+//The file is parsed and validated on the watcher thread, then replaces the database contents in one step,
+//so calculate calls in flight see either all of the old rates or all of the new ones.
+//A file with any rejected or duplicate rows is ignored and the current rates stay live.
+//Replacing every rate is not on the putregion port, so whoever wires the watcher passes in how it is done.
+public final class RateDirectoryWatcher implements AutoCloseable {
+    //Editors and copies write a file in several steps, so wait for the directory to go quiet before reading
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path directory;
+    private final Consumer<Set<Region>> replaceRates;
+    private final Runnable afterReload;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong rejectedFiles = new AtomicLong();
+    private volatile ImportReport lastReport;
+
+    //replaceRates swaps in the complete set of rates in one step
+    //afterReload runs on the watcher thread once new rates are live, e.g. to clear a quote cache
+    public RateDirectoryWatcher(Path directory, Consumer<Set<Region>> replaceRates, Runnable afterReload) {
+        this.directory = directory;
+        this.replaceRates = replaceRates;
+        this.afterReload = afterReload;
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot watch " + directory, e);
+        }
+        watcher = new Thread(this::watchLoop, "rate-directory-watcher");
+        watcher.setDaemon(true);
+    }
+
+    public void start() {
+        watcher.start();
+    }
+
+    //Loads a file straight away, on the calling thread
+    public boolean reload(Path file) throws IOException {
+        Set<Region> regions = new HashSet<>();
+        //Validation happens in the Region and Country constructors, called by the importer
+        ImportReport report = new RateFileImportAdapter(regions::addAll, Integer.MAX_VALUE).importFrom(file);
+        lastReport = report;
+        if (!report.getProblems().isEmpty() || regions.isEmpty()) {
+            rejectedFiles.incrementAndGet();
+            return false;
+        }
+        replaceRates.accept(regions);
+        reloads.incrementAndGet();
+        afterReload.run();
+        return true;
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    public long getRejectedFiles() {
+        return rejectedFiles.get();
+    }
+
+    //The report for the last file read, or null before the first one
+    public ImportReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+            watcher.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collect(key, changed);
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                //Only the newest rates matter when several files changed together
+                Path latest = null;
+                for (Path file : changed) {
+                    latest = file;
+                }
+                if (latest != null && Files.isRegularFile(latest)) {
+                    try {
+                        reload(latest);
+                    } catch (IOException | UncheckedIOException e) {
+                        rejectedFiles.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        //Keep watching, the current rates stay live
+                        rejectedFiles.incrementAndGet();
+                        System.err.format("Cannot reload rates from %s: %s%n", latest, e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            //Closed, so stop watching
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && !name.toString().startsWith(".")) {
+                Path file = directory.resolve(name);
+                changed.remove(file);
+                changed.add(file);
+            }
+        }
+        key.reset();
+    }
+}
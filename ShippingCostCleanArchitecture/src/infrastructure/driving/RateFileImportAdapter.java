@@ -0,0 +1,153 @@
+package infrastructure.driving;
+
+import applicationcode.usecase.putregion.Country;
+import applicationcode.usecase.putregion.Provided;
+import applicationcode.usecase.putregion.Region;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//Streams a rate file into the putregion use case a batch at a time
+//Each row is: regionCode, regionName, minCharge, costPerKg, countryCode, countryName
+//separated by commas or tabs. Fields may be "quoted". Blank lines, # comments and a regionCode header are skipped.
+public class RateFileImportAdapter {
+    private static final int FIELDS = 6;
+
+    private final Provided putRegions;
+    private final int batchSize;
+
+    public RateFileImportAdapter(Provided putRegions, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than zero");
+        }
+        this.putRegions = putRegions;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importFrom(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader);
+        }
+    }
+
+    //Duplicate and invalid rows are reported and skipped, so one pass finds all of them
+    public ImportReport importFrom(Reader reader) throws IOException {
+        ImportReport report = new ImportReport();
+        BufferedReader lines = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        Set<String> countryCodes = new HashSet<>();
+        Map<String, Region> regions = new HashMap<>();
+        Map<String, Region> batch = new HashMap<>();
+        String[] fields = new String[FIELDS];
+        int rowsInBatch = 0;
+        long lineNumber = 0;
+        boolean firstRow = true;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            char separator = line.indexOf('\t') >= 0 ? '\t' : ',';
+
+            int count = split(line, separator, fields);
+            if (count != FIELDS) {
+                report.rejected(lineNumber, "expected " + FIELDS + " fields but found " + count);
+                continue;
+            }
+            if (firstRow) {
+                firstRow = false;
+                if (fields[0].equalsIgnoreCase("regionCode")) {
+                    continue;
+                }
+            }
+            if (!countryCodes.add(fields[4])) {
+                report.duplicate(lineNumber, fields[4]);
+                continue;
+            }
+
+            try {
+                Country country = new Country(fields[4], fields[5]);
+                double minCharge = Double.parseDouble(fields[2]);
+                double costPerKg = Double.parseDouble(fields[3]);
+                Region first = regions.get(fields[0]);
+                if (first != null && (first.getMinCharge() != minCharge || first.getCostPerKg() != costPerKg)) {
+                    throw new IllegalArgumentException("costs for region " + fields[0] + " differ from an earlier row");
+                }
+                Region region = batch.get(fields[0]);
+                if (region == null) {
+                    region = new Region(fields[0], fields[1], minCharge, costPerKg);
+                    batch.put(fields[0], region);
+                    regions.putIfAbsent(fields[0], region);
+                }
+                region.addCountry(country);
+            } catch (IllegalArgumentException e) {
+                //NumberFormatException is an IllegalArgumentException too
+                countryCodes.remove(fields[4]);
+                report.rejected(lineNumber, e.getMessage());
+                continue;
+            }
+            report.imported();
+
+            if (++rowsInBatch == batchSize) {
+                putRegions.put(Set.copyOf(batch.values()));
+                batch.clear();
+                rowsInBatch = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            putRegions.put(Set.copyOf(batch.values()));
+        }
+        return report;
+    }
+
+    //Splits into the fields array and returns the number of fields found, without a regex or a list per line
+    private static int split(String line, char separator, String[] fields) {
+        int count = 0;
+        int position = 0;
+        int length = line.length();
+        while (position <= length) {
+            String field;
+            if (position < length && line.charAt(position) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                position++;
+                while (position < length) {
+                    char c = line.charAt(position++);
+                    if (c == '"') {
+                        if (position < length && line.charAt(position) == '"') {
+                            quoted.append('"');
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+                field = quoted.toString();
+                int end = line.indexOf(separator, position);
+                position = end < 0 ? length + 1 : end + 1;
+            } else {
+                int end = line.indexOf(separator, position);
+                if (end < 0) {
+                    end = length;
+                }
+                field = line.substring(position, end).trim();
+                position = end + 1;
+            }
+            if (count < fields.length) {
+                fields[count] = field;
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+package infrastructure.driving;
+
+import infrastructure.instrumentation.Instrumentation;
+import infrastructure.tenant.TenantCatalogues;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Serves many quote requests at once, each on its own virtual thread
+//Requests, one per line:   <id> QUOTE <countryCode> <weight> [<tenant>]   or   <id> LIST   or   <id> METRICS
+//A quote without a tenant uses the default rates
+//Responses are tagged with the request id and written as each one completes:
+//  <id> OK <cost>   <id> OK <countryCode>,<countryCode>,...   <id> OK <metrics as JSON>   <id> ERROR <message>
+//Here we need to fully qualify the usecase interfaces to disambiguate the Provided interfaces
+public class ShippingCostLineProtocolAdapter {
+    private final applicationcode.usecase.listavailablecountries.Provided listAvailableCountries;
+    private final applicationcode.usecase.calculateshipping.Provided calculateShipping;
+    private final TenantCatalogues tenants;
+    private final Instrumentation instrumentation;
+
+    public ShippingCostLineProtocolAdapter(applicationcode.usecase.listavailablecountries.Provided listAvailableCountries, applicationcode.usecase.calculateshipping.Provided calculateShipping) {
+        this(listAvailableCountries, calculateShipping, new TenantCatalogues(), new Instrumentation());
+    }
+
+    public ShippingCostLineProtocolAdapter(applicationcode.usecase.listavailablecountries.Provided listAvailableCountries, applicationcode.usecase.calculateshipping.Provided calculateShipping, TenantCatalogues tenants, Instrumentation instrumentation) {
+        this.listAvailableCountries = listAvailableCountries;
+        this.calculateShipping = calculateShipping;
+        this.tenants = tenants;
+        this.instrumentation = instrumentation;
+    }
+
+    //Returns when the input ends and every request read from it has been answered
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String request = line;
+                executor.execute(() -> respond(writer, answer(request)));
+            }
+        }
+        writer.flush();
+    }
+
+    //Accepts connections on the loopback interface until the thread is interrupted
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+             ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.format("Serving shipping quotes on %s%n", server.getLocalSocketAddress());
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket socket = server.accept();
+                connections.execute(() -> {
+                    try (socket) {
+                        serve(socket.getInputStream(), socket.getOutputStream());
+                    } catch (IOException e) {
+                        System.err.format("Connection from %s failed: %s%n", socket.getRemoteSocketAddress(), e.getMessage());
+                    }
+                });
+            }
+        }
+    }
+
+    private String answer(String request) {
+        String[] parts = request.trim().split("\\s+");
+        String id = parts[0];
+        try {
+            if (parts.length == 2 && parts[1].equalsIgnoreCase("LIST")) {
+                return id + " OK " + String.join(",", listAvailableCountries.list());
+            }
+            if (parts.length == 2 && parts[1].equalsIgnoreCase("METRICS")) {
+                return id + " OK " + instrumentation.toJson();
+            }
+            if (parts.length == 4 && parts[1].equalsIgnoreCase("QUOTE")) {
+                return id + " OK " + calculateShipping.calculate(parts[2], Double.parseDouble(parts[3]));
+            }
+            if (parts.length == 5 && parts[1].equalsIgnoreCase("QUOTE")) {
+                return id + " OK " + tenants.calculateShipping(parts[4]).calculate(parts[2], Double.parseDouble(parts[3]));
+            }
+            return id + " ERROR Expected <id> QUOTE <countryCode> <weight> [<tenant>] or <id> LIST or <id> METRICS";
+        } catch (IllegalArgumentException e) {
+            return id + " ERROR " + e.getMessage();
+        } catch (RuntimeException e) {
+            //Every request gets a reply, otherwise the client waits for this id forever
+            return id + " ERROR " + e;
+        }
+    }
+
+    private static void respond(PrintWriter writer, String response) {
+        synchronized (writer) {
+            writer.println(response);
+            writer.flush();
+        }
+    }
+}
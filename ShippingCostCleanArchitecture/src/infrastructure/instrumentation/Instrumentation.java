@@ -0,0 +1,28 @@
+package infrastructure.instrumentation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+//Holds the metrics of every instrumented port so they can be exported together
+public class Instrumentation {
+    private final List<PortMetrics> ports = new CopyOnWriteArrayList<>();
+
+    public PortMetrics register(String name) {
+        PortMetrics metrics = new PortMetrics(name);
+        ports.add(metrics);
+        return metrics;
+    }
+
+    public List<MetricsSnapshot> snapshot() {
+        return ports.stream().map(PortMetrics::snapshot).toList();
+    }
+
+    public String toText() {
+        return snapshot().stream().map(MetricsSnapshot::toText).collect(Collectors.joining(System.lineSeparator(), "", System.lineSeparator()));
+    }
+
+    public String toJson() {
+        return snapshot().stream().map(MetricsSnapshot::toJson).collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,95 @@
+package infrastructure.instrumentation;
+
+import applicationcode.usecase.calculateshipping.Provided;
+import applicationcode.usecase.calculateshipping.ResultCode;
+import applicationcode.usecase.calculateshipping.ShippingRequest;
+
+//Decorates the calculateshipping use case with call counts, error counts and latency histograms
+public class InstrumentedCalculateShipping implements Provided {
+    private final Provided calculateShipping;
+    private final PortMetrics calculate;
+    private final PortMetrics calculateBatch;
+    private final PortMetrics tryCalculate;
+
+    public InstrumentedCalculateShipping(Provided calculateShipping, Instrumentation instrumentation) {
+        this.calculateShipping = calculateShipping;
+        this.calculate = instrumentation.register("calculateshipping.calculate");
+        this.calculateBatch = instrumentation.register("calculateshipping.calculate[batch]");
+        this.tryCalculate = instrumentation.register("calculateshipping.tryCalculate");
+    }
+
+    @Override
+    public double calculate(String countryCode, double weight) {
+        long start = calculate.start();
+        try {
+            return calculateShipping.calculate(countryCode, weight);
+        } catch (RuntimeException e) {
+            calculate.error(e);
+            throw e;
+        } finally {
+            calculate.record(start);
+        }
+    }
+
+    //Counted with calculate, but forwarded as a request so the use case can skip checking it again
+    @Override
+    public double calculate(ShippingRequest request) {
+        long start = calculate.start();
+        try {
+            return calculateShipping.calculate(request);
+        } catch (RuntimeException e) {
+            calculate.error(e);
+            throw e;
+        } finally {
+            calculate.record(start);
+        }
+    }
+
+    //Result codes other than OK are counted as errors under their own name
+    @Override
+    public ResultCode tryCalculate(String countryCode, double weight, double[] cost) {
+        long start = tryCalculate.start();
+        try {
+            ResultCode result = calculateShipping.tryCalculate(countryCode, weight, cost);
+            if (result != ResultCode.OK) {
+                tryCalculate.error(result);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            tryCalculate.error(e);
+            throw e;
+        } finally {
+            tryCalculate.record(start);
+        }
+    }
+
+    @Override
+    public ResultCode tryCalculate(ShippingRequest request, double[] cost) {
+        long start = tryCalculate.start();
+        try {
+            ResultCode result = calculateShipping.tryCalculate(request, cost);
+            if (result != ResultCode.OK) {
+                tryCalculate.error(result);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            tryCalculate.error(e);
+            throw e;
+        } finally {
+            tryCalculate.record(start);
+        }
+    }
+
+    @Override
+    public void calculate(String[] countryCodes, double[] weights, double[] costs) {
+        long start = calculateBatch.start();
+        try {
+            calculateShipping.calculate(countryCodes, weights, costs);
+        } catch (RuntimeException e) {
+            calculateBatch.error(e);
+            throw e;
+        } finally {
+            calculateBatch.record(start);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package infrastructure.instrumentation;
+
+import applicationcode.usecase.listavailablecountries.CacheStatistics;
+import applicationcode.usecase.listavailablecountries.Provided;
+
+import java.util.Set;
+
+//Decorates the listavailablecountries use case with call counts, error counts and latency histograms
+public class InstrumentedListAvailableCountries implements Provided {
+    private final Provided listAvailableCountries;
+    private final PortMetrics list;
+
+    public InstrumentedListAvailableCountries(Provided listAvailableCountries, Instrumentation instrumentation) {
+        this.listAvailableCountries = listAvailableCountries;
+        this.list = instrumentation.register("listavailablecountries.list");
+    }
+
+    @Override
+    public Set<String> list() {
+        long start = list.start();
+        try {
+            return listAvailableCountries.list();
+        } catch (RuntimeException e) {
+            list.error(e);
+            throw e;
+        } finally {
+            list.record(start);
+        }
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return listAvailableCountries.getCacheStatistics();
+    }
+}
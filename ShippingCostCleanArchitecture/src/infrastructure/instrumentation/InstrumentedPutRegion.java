@@ -0,0 +1,30 @@
+package infrastructure.instrumentation;
+
+import applicationcode.usecase.putregion.Provided;
+import applicationcode.usecase.putregion.Region;
+
+import java.util.Set;
+
+//Decorates the putregion use case with call counts, error counts and latency histograms
+public class InstrumentedPutRegion implements Provided {
+    private final Provided putRegions;
+    private final PortMetrics put;
+
+    public InstrumentedPutRegion(Provided putRegions, Instrumentation instrumentation) {
+        this.putRegions = putRegions;
+        this.put = instrumentation.register("putregion.put");
+    }
+
+    @Override
+    public void put(Set<Region> regions) {
+        long start = put.start();
+        try {
+            putRegions.put(regions);
+        } catch (RuntimeException e) {
+            put.error(e);
+            throw e;
+        } finally {
+            put.record(start);
+        }
+    }
+}
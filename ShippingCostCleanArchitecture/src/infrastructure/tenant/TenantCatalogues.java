@@ -0,0 +1,63 @@
+package infrastructure.tenant;
+
+import infrastructure.driven.CountryCodeIndexDatabaseAdapter;
+import infrastructure.driven.PutRegionDatabaseAdapter;
+import infrastructure.driven.SharedRateTable;
+import infrastructure.driven.ShippingCostDatabase;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//One rate catalogue per retailer, each with its own database and its own calculateshipping and putregion use cases
+//Looking a tenant up is a single ConcurrentHashMap read, so switching tenants on the request path takes no lock
+//and every tenant's readers see their own copy-on-write snapshots
+//Here we need to fully qualify the usecase interfaces to disambiguate the Provided interfaces
+public class TenantCatalogues {
+    private final ConcurrentHashMap<String, Catalogue> catalogues = new ConcurrentHashMap<>();
+    private final SharedRateTable shared = new SharedRateTable();
+
+    //Returns the existing catalogue when the tenant has already been added
+    public Catalogue add(String tenant) {
+        if (tenant == null || tenant.isBlank()) {
+            throw new IllegalArgumentException("Tenant must not be null or blank");
+        }
+        return catalogues.computeIfAbsent(tenant, this::create);
+    }
+
+    public Catalogue get(String tenant) {
+        Catalogue catalogue = tenant == null ? null : catalogues.get(tenant);
+        if (catalogue == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        return catalogue;
+    }
+
+    public applicationcode.usecase.calculateshipping.Provided calculateShipping(String tenant) {
+        return get(tenant).calculateShipping();
+    }
+
+    public applicationcode.usecase.putregion.Provided putRegions(String tenant) {
+        return get(tenant).putRegions();
+    }
+
+    public Set<String> getTenants() {
+        return Set.copyOf(catalogues.keySet());
+    }
+
+    //Number of codes, names, charges and bands held once for all the tenants
+    public int getSharedEntries() {
+        return shared.size();
+    }
+
+    private Catalogue create(String tenant) {
+        ShippingCostDatabase database = new ShippingCostDatabase();
+        return new Catalogue(tenant,
+                applicationcode.usecase.calculateshipping.Provided.create(new CountryCodeIndexDatabaseAdapter(database)),
+                applicationcode.usecase.putregion.Provided.create(new PutRegionDatabaseAdapter(database, shared)));
+    }
+
+    public record Catalogue(String tenant,
+                            applicationcode.usecase.calculateshipping.Provided calculateShipping,
+                            applicationcode.usecase.putregion.Provided putRegions) {
+    }
+}
@@ -1,17 +1,26 @@
 import applicationcode.Provided;
 import applicationcode.ShippingCostRepository;
-import infrastructure.driven.ShippingCostRepositoryAdapter;
+import infrastructure.driven.DurableShippingCostRepositoryAdapter;
+import infrastructure.driven.IndexedShippingCostRepositoryAdapter;
 import infrastructure.driving.ShippingCostAdministrationCliAdaptor;
-import infrastructure.driven.ShippingCostDatabase;
+import infrastructure.instrumentation.Instrumentation;
+import infrastructure.instrumentation.InstrumentedShippingCostAdministration;
+
+import java.nio.file.Path;
 
 //TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
 // click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
 public class SoftwareProduct {
 
     public static void main(String[] args) {
-        ShippingCostDatabase shippingCostDatabase = new ShippingCostDatabase(); // Create an instance of ShippingCostDatabase
-        ShippingCostRepository shippingCostDatabaseAdapter = new ShippingCostRepositoryAdapter(shippingCostDatabase); // Create an adapter for the database
+        //Pass a directory to keep the shipping costs in a write-ahead log there, otherwise they are only in memory
+        ShippingCostRepository shippingCostDatabaseAdapter = args.length > 0
+                ? new DurableShippingCostRepositoryAdapter(Path.of(args[0])) // Recover the shipping costs from the log
+                : new IndexedShippingCostRepositoryAdapter(); // Create an EnumMap backed repository
         Provided shippingCostCalculator = Provided.create(shippingCostDatabaseAdapter); // Create an instance of Provided with the shipping cost database
+        Instrumentation instrumentation = new Instrumentation(); // Time every call through the Provided port, printed on exit
+        shippingCostCalculator = new InstrumentedShippingCostAdministration(shippingCostCalculator, instrumentation);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(instrumentation.toText())));
         ShippingCostAdministrationCliAdaptor cli = new ShippingCostAdministrationCliAdaptor(shippingCostCalculator); // Create an instance of the CLI
         cli.run();
     }
@@ -1,7 +1,6 @@
 package applicationcode;
 
 import java.util.List;
-import java.util.Optional;
 
 class ShippingCostAdministrator implements Provided {
     private final ShippingCostRepository required;
@@ -13,7 +12,7 @@ class ShippingCostAdministrator implements Provided {
 
     @Override
     public void addShippingCost(Region region, double minCharge, double costPerKg) {
-        if(getAllShippingCosts().stream().anyMatch(sc -> sc.getRegion().equals(region))) {
+        if(required.exists(region)) {
             throw new IllegalArgumentException("Shipping cost for region already exists");
         }
         ShippingCost shippingCost = new ShippingCost(region, minCharge, costPerKg);
@@ -22,8 +21,7 @@ class ShippingCostAdministrator implements Provided {
 
     @Override
     public void updateShippingCost(Region region, double minCharge, double costPerKg) {
-        Optional<ShippingCost> cost = getAllShippingCosts().stream().filter(sc -> sc.getRegion().equals(region)).findFirst();
-        if(cost.isEmpty()) {
+        if(!required.exists(region)) {
             throw new IllegalArgumentException("Shipping cost for region not found");
         }
         ShippingCost shippingCost = new ShippingCost(region, minCharge, costPerKg);
@@ -32,8 +30,7 @@ class ShippingCostAdministrator implements Provided {
 
     @Override
     public void deleteShippingCost(Region region) {
-        Optional<ShippingCost> cost = getAllShippingCosts().stream().filter(sc -> sc.getRegion().equals(region)).findFirst();
-        if(cost.isPresent()) {
+        if(required.exists(region)) {
             required.deleteShippingCost(region);
         }
     }
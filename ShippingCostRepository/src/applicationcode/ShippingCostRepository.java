@@ -7,4 +7,5 @@ public interface ShippingCostRepository {
     void updateShippingCost(ShippingCost shippingCost);
     void deleteShippingCost(Region region);
     List<ShippingCost> getAllShippingCosts();
+    boolean exists(Region region);
 }
@@ -0,0 +1,341 @@
+package infrastructure.driven;
+
+import applicationcode.Region;
+import applicationcode.ShippingCost;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+//Write-ahead log in front of the in-memory repository, so shipping costs survive a restart
+//
+//Every add, update and delete is appended to shipping-costs.log and forced to disk before it is applied.
+//A single writer thread takes everything queued since its last write and commits it with one write and
+//one force (group commit), so many concurrent callers share the cost of each force.
+//Every COMPACT_AFTER records the current state is written to shipping-costs.snapshot and the log starts again.
+//Both files start with an epoch, a log is only replayed on top of the snapshot with the same epoch.
+//
+//If a write fails part way through, the log is cut back to the last whole group so later groups are not
+//appended after a torn record that recovery would stop at. If that fails too, every later change is refused.
+//
+//Record: operation (byte), region ordinal (byte), minCharge (double), costPerKg (double), CRC32 of the rest (int)
+public final class DurableShippingCostRepositoryAdapter implements applicationcode.ShippingCostRepository, AutoCloseable {
+    private static final byte ADD = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final int RECORD_BYTES = 1 + 1 + 8 + 8 + 4;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_GROUP = 4096;
+    private static final int COMPACT_AFTER = 100_000;
+    //Queued by close, after everything else, to stop the writer
+    private static final Pending STOP = new Pending((byte) 0, null, 0.0, 0.0, new CompletableFuture<>());
+
+    private final IndexedShippingCostRepositoryAdapter memory = new IndexedShippingCostRepositoryAdapter();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final Thread writer;
+    private final LogOpener logOpener;
+    //Held while checking closed and queueing, so nothing can be queued behind STOP
+    private final Object queueLock = new Object();
+    //Only used by the writer thread, or during recovery before it starts
+    private final CRC32 crc = new CRC32();
+    private FileChannel log;
+    private long epoch;
+    private long recordsInLog;
+    //Guarded by queueLock
+    private boolean closed;
+    //Set when the log could not be repaired after a failed write, or could not be started again after compaction
+    private volatile IOException failure;
+
+    public DurableShippingCostRepositoryAdapter(Path directory) {
+        this(directory, file -> FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    DurableShippingCostRepositoryAdapter(Path directory, LogOpener logOpener) {
+        this.logOpener = logOpener;
+        this.logFile = directory.resolve("shipping-costs.log");
+        this.snapshotFile = directory.resolve("shipping-costs.snapshot");
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover shipping costs from " + directory, e);
+        }
+        writer = new Thread(this::writeLoop, "shipping-cost-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void addShippingCost(ShippingCost shippingCost) {
+        commit(ADD, shippingCost.getRegion(), shippingCost.getMinCharge(), shippingCost.getCostPerKg());
+    }
+
+    @Override
+    public void updateShippingCost(ShippingCost shippingCost) {
+        commit(UPDATE, shippingCost.getRegion(), shippingCost.getMinCharge(), shippingCost.getCostPerKg());
+    }
+
+    @Override
+    public void deleteShippingCost(Region region) {
+        commit(DELETE, region, 0.0, 0.0);
+    }
+
+    @Override
+    public List<ShippingCost> getAllShippingCosts() {
+        synchronized (memory) {
+            return memory.getAllShippingCosts();
+        }
+    }
+
+    @Override
+    public boolean exists(Region region) {
+        synchronized (memory) {
+            return memory.exists(region);
+        }
+    }
+
+    //Waits for everything already queued to be committed, then stops the writer
+    @Override
+    public void close() {
+        synchronized (queueLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            writer.join();
+            log.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Returns once the change is on disk and visible to readers
+    private void commit(byte operation, Region region, double minCharge, double costPerKg) {
+        if (failure != null) {
+            throw new UncheckedIOException("Shipping cost log has failed", failure);
+        }
+        Pending pending = new Pending(operation, region, minCharge, costPerKg, new CompletableFuture<>());
+        synchronized (queueLock) {
+            if (closed) {
+                throw new IllegalStateException("Repository is closed");
+            }
+            queue.add(pending);
+        }
+        try {
+            pending.done().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Cannot write shipping cost log", cause);
+            }
+            throw e;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> group = new ArrayList<>(MAX_GROUP);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_GROUP * RECORD_BYTES);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                //Only STOP ends the loop, so nothing queued is left waiting
+                continue;
+            }
+            queue.drainTo(group, MAX_GROUP - group.size());
+            //Nothing is queued after STOP, so it can only be last
+            if (group.get(group.size() - 1) == STOP) {
+                group.remove(group.size() - 1);
+                stopping = true;
+            }
+            if (group.isEmpty()) {
+                continue;
+            }
+            if (failure != null) {
+                fail(group, failure);
+                group.clear();
+                continue;
+            }
+
+            if (write(group, buffer)) {
+                synchronized (memory) {
+                    for (Pending pending : group) {
+                        apply(pending.operation(), pending.region(), pending.minCharge(), pending.costPerKg());
+                    }
+                }
+                for (Pending pending : group) {
+                    pending.done().complete(null);
+                }
+                if (recordsInLog >= COMPACT_AFTER) {
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        //The log may now be behind the snapshot's epoch, so nothing more can safely be appended to it
+                        failure = e;
+                    }
+                }
+            }
+            group.clear();
+        }
+    }
+
+    //Appends the group and forces it to disk, or fails every change in it and cuts off whatever part reached the log
+    private boolean write(List<Pending> group, ByteBuffer buffer) {
+        long lastGood;
+        try {
+            lastGood = log.position();
+        } catch (IOException e) {
+            fail(group, e);
+            failure = e;
+            return false;
+        }
+        try {
+            buffer.clear();
+            for (Pending pending : group) {
+                putRecord(buffer, pending.operation(), pending.region(), pending.minCharge(), pending.costPerKg());
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+            recordsInLog += group.size();
+            return true;
+        } catch (IOException e) {
+            fail(group, e);
+            try {
+                log.truncate(lastGood);
+                log.position(lastGood);
+                log.force(true);
+            } catch (IOException truncateFailure) {
+                truncateFailure.addSuppressed(e);
+                failure = truncateFailure;
+            }
+            return false;
+        }
+    }
+
+    private static void fail(List<Pending> group, IOException cause) {
+        for (Pending pending : group) {
+            pending.done().completeExceptionally(cause);
+        }
+    }
+
+    private void apply(byte operation, Region region, double minCharge, double costPerKg) {
+        switch (operation) {
+            case ADD -> memory.addShippingCost(new ShippingCost(region, minCharge, costPerKg));
+            case UPDATE -> memory.updateShippingCost(new ShippingCost(region, minCharge, costPerKg));
+            case DELETE -> memory.deleteShippingCost(region);
+            default -> throw new IllegalStateException("Unknown log operation: " + operation);
+        }
+    }
+
+    //Only called from the writer thread (or before it starts), so the state cannot change underneath it
+    private void compact() throws IOException {
+        List<ShippingCost> shippingCosts = getAllShippingCosts();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + shippingCosts.size() * RECORD_BYTES);
+        buffer.putLong(epoch + 1);
+        for (ShippingCost shippingCost : shippingCosts) {
+            putRecord(buffer, ADD, shippingCost.getRegion(), shippingCost.getMinCharge(), shippingCost.getCostPerKg());
+        }
+        buffer.flip();
+
+        Path next = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".next");
+        try (FileChannel channel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(next, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        //A crash from here on leaves an older epoch in the log, which recovery then ignores
+        epoch++;
+        startLog();
+    }
+
+    private void recover() throws IOException {
+        epoch = 0;
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            epoch = snapshot.getLong();
+            replay(snapshot);
+        }
+
+        if (Files.exists(logFile)) {
+            ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(logFile));
+            if (records.remaining() >= HEADER_BYTES && records.getLong() == epoch) {
+                recordsInLog = replay(records);
+            }
+        }
+
+        //Start a fresh log from the recovered state, which also drops any torn record at the end of the old one
+        compact();
+    }
+
+    private int replay(ByteBuffer records) {
+        int replayed = 0;
+        while (records.remaining() >= RECORD_BYTES) {
+            int start = records.position();
+            crc.reset();
+            crc.update(records.slice(start, RECORD_BYTES - 4));
+            byte operation = records.get();
+            int ordinal = records.get();
+            double minCharge = records.getDouble();
+            double costPerKg = records.getDouble();
+            if (records.getInt() != (int) crc.getValue() || ordinal < 0 || ordinal >= Region.values().length) {
+                break;
+            }
+            apply(operation, Region.values()[ordinal], minCharge, costPerKg);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private void startLog() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+        log = logOpener.open(logFile);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putLong(epoch).flip();
+        while (header.hasRemaining()) {
+            log.write(header);
+        }
+        log.force(true);
+        recordsInLog = 0;
+    }
+
+    private void putRecord(ByteBuffer buffer, byte operation, Region region, double minCharge, double costPerKg) {
+        int start = buffer.position();
+        buffer.put(operation).put((byte) region.ordinal()).putDouble(minCharge).putDouble(costPerKg);
+        crc.reset();
+        crc.update(buffer.slice(start, RECORD_BYTES - 4));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    interface LogOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private record Pending(byte operation, Region region, double minCharge, double costPerKg, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,39 @@
+package infrastructure.driven;
+
+import applicationcode.Region;
+import applicationcode.ShippingCost;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+//Keeps the ShippingCost objects themselves in an EnumMap, so finding one by region is an array index
+public class IndexedShippingCostRepositoryAdapter implements applicationcode.ShippingCostRepository {
+
+    private final Map<Region, ShippingCost> shippingCosts = new EnumMap<>(Region.class);
+
+    @Override
+    public void addShippingCost(ShippingCost shippingCost) {
+        shippingCosts.putIfAbsent(shippingCost.getRegion(), shippingCost);
+    }
+
+    @Override
+    public void updateShippingCost(ShippingCost shippingCost) {
+        shippingCosts.replace(shippingCost.getRegion(), shippingCost);
+    }
+
+    @Override
+    public void deleteShippingCost(Region region) {
+        shippingCosts.remove(region);
+    }
+
+    @Override
+    public List<ShippingCost> getAllShippingCosts() {
+        return List.copyOf(shippingCosts.values());
+    }
+
+    @Override
+    public boolean exists(Region region) {
+        return shippingCosts.containsKey(region);
+    }
+}
@@ -45,4 +45,9 @@ public class ShippingCostRepositoryAdapter implements applicationcode.ShippingCo
             return shippingCost;
         }).toList();
     }
+
+    @Override
+    public boolean exists(Region region) {
+        return database.regions.contains(region);
+    }
 }
@@ -0,0 +1,76 @@
+package infrastructure.instrumentation;
+
+import applicationcode.Provided;
+import applicationcode.Region;
+import applicationcode.ShippingCost;
+
+import java.util.List;
+
+//Decorates the shipping cost administrator with call counts, error counts and latency histograms for each operation
+public class InstrumentedShippingCostAdministration implements Provided {
+    private final Provided shippingCostAdministrator;
+    private final PortMetrics add;
+    private final PortMetrics update;
+    private final PortMetrics delete;
+    private final PortMetrics getAll;
+
+    public InstrumentedShippingCostAdministration(Provided shippingCostAdministrator, Instrumentation instrumentation) {
+        this.shippingCostAdministrator = shippingCostAdministrator;
+        this.add = instrumentation.register("addShippingCost");
+        this.update = instrumentation.register("updateShippingCost");
+        this.delete = instrumentation.register("deleteShippingCost");
+        this.getAll = instrumentation.register("getAllShippingCosts");
+    }
+
+    @Override
+    public void addShippingCost(Region region, double minCharge, double costPerKg) {
+        long start = add.start();
+        try {
+            shippingCostAdministrator.addShippingCost(region, minCharge, costPerKg);
+        } catch (RuntimeException e) {
+            add.error(e);
+            throw e;
+        } finally {
+            add.record(start);
+        }
+    }
+
+    @Override
+    public void updateShippingCost(Region region, double minCharge, double costPerKg) {
+        long start = update.start();
+        try {
+            shippingCostAdministrator.updateShippingCost(region, minCharge, costPerKg);
+        } catch (RuntimeException e) {
+            update.error(e);
+            throw e;
+        } finally {
+            update.record(start);
+        }
+    }
+
+    @Override
+    public void deleteShippingCost(Region region) {
+        long start = delete.start();
+        try {
+            shippingCostAdministrator.deleteShippingCost(region);
+        } catch (RuntimeException e) {
+            delete.error(e);
+            throw e;
+        } finally {
+            delete.record(start);
+        }
+    }
+
+    @Override
+    public List<ShippingCost> getAllShippingCosts() {
+        long start = getAll.start();
+        try {
+            return shippingCostAdministrator.getAllShippingCosts();
+        } catch (RuntimeException e) {
+            getAll.error(e);
+            throw e;
+        } finally {
+            getAll.record(start);
+        }
+    }
+}
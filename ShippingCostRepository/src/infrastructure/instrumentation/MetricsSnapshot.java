@@ -0,0 +1,27 @@
+package infrastructure.instrumentation;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+//What one operation looked like when the snapshot was taken, latencies in nanoseconds
+public record MetricsSnapshot(String name, long calls, Map<String, Long> errors, double mean,
+                              long p50, long p90, long p99, long p999, long max) {
+
+    public long getErrorCount() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String toText() {
+        return String.format("%-40s calls=%d errors=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns%s",
+                name, calls, getErrorCount(), mean, p50, p90, p99, p999, max,
+                errors.isEmpty() ? "" : " " + errors);
+    }
+
+    public String toJson() {
+        String errorJson = errors.entrySet().stream()
+                .map(error -> "\"" + error.getKey() + "\":" + error.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+        return String.format("{\"name\":\"%s\",\"calls\":%d,\"errors\":%s,\"meanNanos\":%.1f,\"p50Nanos\":%d,\"p90Nanos\":%d,\"p99Nanos\":%d,\"p999Nanos\":%d,\"maxNanos\":%d}",
+                name, calls, errorJson, mean, p50, p90, p99, p999, max);
+    }
+}
@@ -0,0 +1,43 @@
+package infrastructure.instrumentation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Calls, latencies and errors for one operation of a Provided port
+//The decorators call start() and record() around the delegate, and error() when it throws
+public class PortMetrics {
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    //Only touched when a call fails, which has already allocated its exception
+    private final Map<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+
+    PortMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void record(long start) {
+        latencies.record(System.nanoTime() - start);
+    }
+
+    public void error(Throwable error) {
+        errors.computeIfAbsent(error.getClass(), type -> new LongAdder()).increment();
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((type, count) -> errorCounts.put(type.getSimpleName(), count.sum()));
+        return new MetricsSnapshot(name, latencies.getCount(), errorCounts, latencies.getMean(),
+                latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(90),
+                latencies.getValueAtPercentile(99), latencies.getValueAtPercentile(99.9), latencies.getMax());
+    }
+}
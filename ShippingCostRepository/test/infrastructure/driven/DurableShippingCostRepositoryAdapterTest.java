@@ -0,0 +1,199 @@
+package infrastructure.driven;
+
+import applicationcode.Region;
+import applicationcode.ShippingCost;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurableShippingCostRepositoryAdapterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversCommittedChanges() {
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            repository.addShippingCost(new ShippingCost(Region.UK, 1.0, 2.0));
+            repository.addShippingCost(new ShippingCost(Region.EUR, 3.0, 4.0));
+            repository.updateShippingCost(new ShippingCost(Region.UK, 5.0, 6.0));
+            repository.deleteShippingCost(Region.EUR);
+        }
+
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            ShippingCost uk = repository.getAllShippingCosts().get(0);
+            assertEquals(1, repository.getAllShippingCosts().size());
+            assertEquals(Region.UK, uk.getRegion());
+            assertEquals(5.0, uk.getMinCharge());
+            assertEquals(6.0, uk.getCostPerKg());
+            assertFalse(repository.exists(Region.EUR));
+        }
+    }
+
+    @Test
+    void ignoresTornRecordAtEndOfLog() throws IOException {
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            repository.addShippingCost(new ShippingCost(Region.UK, 1.0, 2.0));
+        }
+        //As if the process died part way through writing the next record
+        Files.write(directory.resolve("shipping-costs.log"), new byte[]{2, 1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            assertTrue(repository.exists(Region.UK));
+            repository.addShippingCost(new ShippingCost(Region.EUR, 3.0, 4.0));
+        }
+
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            assertTrue(repository.exists(Region.UK));
+            assertTrue(repository.exists(Region.EUR));
+        }
+    }
+
+    @Test
+    void keepsChangesAcknowledgedAfterAFailedWrite() {
+        FailingChannel[] channel = new FailingChannel[1];
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory, file -> {
+            channel[0] = new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+            return channel[0];
+        })) {
+            repository.addShippingCost(new ShippingCost(Region.UK, 1.0, 2.0));
+            channel[0].failNextWrite = true;
+            assertThrows(UncheckedIOException.class, () -> repository.addShippingCost(new ShippingCost(Region.EUR, 3.0, 4.0)));
+            assertFalse(repository.exists(Region.EUR));
+            repository.addShippingCost(new ShippingCost(Region.ROW, 5.0, 6.0));
+        }
+
+        try (DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory)) {
+            assertTrue(repository.exists(Region.UK));
+            assertFalse(repository.exists(Region.EUR));
+            assertTrue(repository.exists(Region.ROW));
+        }
+    }
+
+    @Test
+    void refusesChangesAfterClose() {
+        DurableShippingCostRepositoryAdapter repository = new DurableShippingCostRepositoryAdapter(directory);
+        repository.close();
+        assertThrows(IllegalStateException.class, () -> repository.addShippingCost(new ShippingCost(Region.UK, 1.0, 2.0)));
+    }
+
+    //Writes half of the buffer and then fails, leaving a torn record behind
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        private volatile boolean failNextWrite;
+
+        private FailingChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+                int written = channel.write(half);
+                src.position(src.position() + written);
+                throw new IOException("Simulated write failure");
+            }
+            return channel.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return channel.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return channel.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return channel.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}